@@ -1,12 +1,18 @@
 package org.example;
 
-import org.example.algorithm.*;
+import org.example.algorithm.MSTPlanner;
 import org.example.model.*;
 import org.example.util.*;
 import org.example.visualization.GraphVisualizer;
 import org.example.visualization.GraphVisualizerApp;
+import org.example.visualization.LayoutCache;
+import java.io.File;
 import java.io.IOException;
-import java.util.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 
 public class Main {
     public static void main(String[] args) {
@@ -14,67 +20,76 @@ public class Main {
             GraphVisualizerApp.main(args);
             return;
         }
+        if (args.length > 0 && args[0].equals("--convert")) {
+            convert(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--generate")) {
+            generateWorkload(args);
+            return;
+        }
+
+        MSTPlanner planner = null;
+        boolean useCache = true;
+        while (args.length > 0 && (args[0].equals("--auto") || args[0].equals("--no-cache"))) {
+            if (args[0].equals("--auto")) {
+                planner = MSTPlanner.loadOrCalibrate(Paths.get(System.getProperty("user.home"),
+                        ".daa-assignment", "planner.properties"));
+            } else {
+                useCache = false;
+            }
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
 
         try {
-            GraphVisualizer.initJavaFX();
+            // Batch rendering draws with Java2D and must not need a display
+            System.setProperty("java.awt.headless", "true");
 
             System.out.println("=== City Transportation Network Optimization ===\n");
 
             String inputFile = args.length > 0 ? args[0] : "src/main/resources/input.json";
             String outputFile = args.length > 1 ? args[1] : "output/output.json";
             String graphOutputDir = args.length > 2 ? args[2] : "output/graphs";
+            int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
 
-            if (!new java.io.File(inputFile).exists()) {
+            if (!new File(inputFile).exists()) {
                 System.out.println("Input file not found. Generating dataset...");
                 generateDataset(inputFile);
             }
 
             JSONHandler jsonHandler = new JSONHandler();
-            InputData inputData = jsonHandler.readInput(inputFile);
-
-            PrimAlgorithm primAlgorithm = new PrimAlgorithm();
-            KruskalAlgorithm kruskalAlgorithm = new KruskalAlgorithm();
             GraphVisualizer visualizer = new GraphVisualizer();
+            BatchPipeline pipeline = new BatchPipeline(workers, BatchPipeline.DEFAULT_QUEUE_CAPACITY,
+                    visualizer, graphOutputDir, planner);
+            if (useCache) {
+                File outputParent = new File(outputFile).getAbsoluteFile().getParentFile();
+                pipeline.setResultCache(new ResultCache(new File(outputParent, "cache").toPath(),
+                        ResultCache.DEFAULT_MAX_BYTES));
+                visualizer.setLayoutCache(new LayoutCache(new File(outputParent, "cache/layouts.bin").toPath(),
+                        LayoutCache.DEFAULT_MAX_BYTES));
+            }
 
-            OutputData outputData = new OutputData();
-            List<OutputData.GraphResult> results = new ArrayList<>();
-
-            System.out.println("Processing " + inputData.getGraphs().size() + " graphs...\n");
-
-            for (InputData.GraphData graphData : inputData.getGraphs()) {
-                System.out.println("Processing Graph ID: " + graphData.getId() +
-                        " (Nodes: " + graphData.getNodes().size() +
-                        ", Edges: " + graphData.getEdges().size() + ")");
-
-                Graph graph = jsonHandler.createGraph(graphData);
-
-                if (!graph.isConnected()) {
-                    System.out.println("  Warning: Graph is disconnected!");
+            System.out.println("Processing graphs from " + inputFile + " with " + workers + " workers...\n");
+
+            int processed;
+            try (ResultWriter writer = jsonHandler.openOutput(outputFile, ResultWriter.formatFor(outputFile))) {
+                if (BinaryGraphReader.isBinaryGraphFile(new File(inputFile))) {
+                    try (BinaryGraphReader reader = new BinaryGraphReader(new File(inputFile))) {
+                        processed = pipeline.run(reader, BatchPipeline.DEFAULT_QUEUE_CAPACITY, writer);
+                    }
+                } else {
+                    processed = pipeline.run(jsonHandler.openInputById(inputFile),
+                            BatchPipeline.DEFAULT_QUEUE_CAPACITY, writer);
                 }
-
-                MSTResult primResult = primAlgorithm.findMST(graph);
-                MSTResult kruskalResult = kruskalAlgorithm.findMST(graph);
-
-                System.out.println("  Prim's   -> Cost: " + primResult.getTotalCost() +
-                        ", Time: " + primResult.getExecutionTimeMs() + "ms" +
-                        ", Operations: " + primResult.getOperationCount());
-                System.out.println("  Kruskal's -> Cost: " + kruskalResult.getTotalCost() +
-                        ", Time: " + kruskalResult.getExecutionTimeMs() + "ms" +
-                        ", Operations: " + kruskalResult.getOperationCount());
-
-                OutputData.GraphResult result = createGraphResult(graphData, primResult, kruskalResult);
-                results.add(result);
-
-                visualizer.visualizeGraph(graph, primResult, kruskalResult,
-                        graphData.getId(), graphOutputDir);
-
-                System.out.println("  Graph visualization saved.\n");
             }
 
-            outputData.setResults(results);
-            jsonHandler.writeOutput(outputFile, outputData);
-
-            System.out.println("=== Processing Complete ===");
+            System.out.println("=== Processing Complete (" + processed + " graphs) ===");
+            if (!pipeline.getHistograms().isEmpty()) {
+                System.out.println("\nPer-graph distribution across the batch:");
+                pipeline.getHistograms().forEach((metric, histogram) ->
+                        System.out.println("  " + metric + ": " + histogram));
+                System.out.println();
+            }
             System.out.println("Output saved to: " + outputFile);
             System.out.println("Visualizations saved to: " + graphOutputDir);
 
@@ -87,48 +102,60 @@ public class Main {
         }
     }
 
-    private static void generateDataset(String filename) throws IOException {
-        GraphGenerator generator = new GraphGenerator();
-        InputData inputData = generator.generateCompleteDataset();
-        JSONHandler jsonHandler = new JSONHandler();
-        jsonHandler.writeInput(filename, inputData);
-        System.out.println("Dataset generated: " + filename + "\n");
-    }
-
-    private static OutputData.GraphResult createGraphResult(InputData.GraphData graphData,
-                                                            MSTResult primResult,
-                                                            MSTResult kruskalResult) {
-        OutputData.GraphResult result = new OutputData.GraphResult();
-        result.setId(graphData.getId());
-        result.setNodes(graphData.getNodes());
-
-        List<OutputData.EdgeData> edges = new ArrayList<>();
-        for (InputData.EdgeData e : graphData.getEdges()) {
-            edges.add(new OutputData.EdgeData(e.getFrom(), e.getTo(), e.getWeight()));
+    private static void convert(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: --convert <input.json> <output.mstg>");
+            System.exit(1);
+        }
+        try (GraphDataReader reader = new JSONHandler().openInput(args[1])) {
+            new BinaryGraphWriter().write(reader, new File(args[2]));
+            System.out.println("Converted " + args[1] + " -> " + args[2]);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
         }
-        result.setEdges(edges);
-
-        result.setPrim(createAlgorithmResult(primResult));
-        result.setKruskal(createAlgorithmResult(kruskalResult));
-
-        return result;
     }
 
-    private static OutputData.AlgorithmResult createAlgorithmResult(MSTResult mstResult) {
-        OutputData.AlgorithmResult result = new OutputData.AlgorithmResult();
-
-        List<OutputData.EdgeData> mstEdges = new ArrayList<>();
-        for (Edge e : mstResult.getEdges()) {
-            mstEdges.add(new OutputData.EdgeData(e.getFrom(), e.getTo(), e.getWeight()));
+    private static void generateWorkload(String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage: --generate <output.mstg> <grid|geometric|erdos-renyi|scale-free|complete> " +
+                    "<nodes> <averageDegree> [uniform|exponential|euclidean] [graphs] [seed]");
+            System.exit(1);
         }
+        try {
+            WorkloadGenerator.Topology topology = WorkloadGenerator.Topology.valueOf(enumName(args[2]));
+            int nodes = Integer.parseInt(args[3]);
+            double averageDegree = Double.parseDouble(args[4]);
+            WorkloadGenerator.WeightDistribution weights = args.length > 5
+                    ? WorkloadGenerator.WeightDistribution.valueOf(enumName(args[5]))
+                    : WorkloadGenerator.WeightDistribution.UNIFORM;
+            int graphs = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+            long seed = args.length > 7 ? Long.parseLong(args[7]) : 42;
+
+            List<WorkloadGenerator.Spec> specs = new ArrayList<>();
+            for (int id = 1; id <= graphs; id++) {
+                specs.add(new WorkloadGenerator.Spec(id, topology, nodes, averageDegree, weights, 1_000_000));
+            }
+            long start = System.nanoTime();
+            new WorkloadGenerator(seed).write(specs, new File(args[1]));
+            System.out.println("Generated " + graphs + " " + args[2] + " graph(s) in " +
+                    (System.nanoTime() - start) / 1_000_000 + "ms -> " + args[1]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
 
-        result.setMstEdges(mstEdges);
-        result.setTotalCost(mstResult.getTotalCost());
-        result.setVertexCount(mstResult.getVertexCount());
-        result.setOriginalEdgeCount(mstResult.getEdgeCount());
-        result.setOperationCount(mstResult.getOperationCount());
-        result.setExecutionTimeMs(mstResult.getExecutionTimeMs());
+    private static String enumName(String arg) {
+        return arg.toUpperCase(Locale.ROOT).replace('-', '_');
+    }
 
-        return result;
+    private static void generateDataset(String filename) throws IOException {
+        GraphGenerator generator = new GraphGenerator();
+        InputData inputData = generator.generateCompleteDataset();
+        JSONHandler jsonHandler = new JSONHandler();
+        jsonHandler.writeInput(filename, inputData);
+        System.out.println("Dataset generated: " + filename + "\n");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package org.example.algorithm;
+
+import org.example.model.Edge;
+import org.example.model.Graph;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Borůvka's algorithm with each round parallelized over fork/join.
+ * Per round, every edge between two components races (CAS) to become its components'
+ * cheapest outgoing edge; the winners are then merged and every vertex is relabeled
+ * with its new component root. Ties are broken by edge id so the choice is a total order
+ * and no cycle can form, which also makes the result independent of thread scheduling.
+ */
+public class BoruvkaAlgorithm implements MSTAlgorithm {
+    private static final long NONE = Long.MAX_VALUE;
+    static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private final ForkJoinPool pool;
+
+    public BoruvkaAlgorithm() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BoruvkaAlgorithm(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    @Override
+    public String getName() {
+        return "boruvka";
+    }
+
+    @Override
+    public MSTResult findMST(Graph graph) {
+        long startTime = System.nanoTime();
+        long operationCount = 0;
+
+        int n = graph.getNodeCount();
+        if (n == 0) {
+            return MSTResult.builder(new ArrayList<>(), 0).build();
+        }
+
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        int[] weights = graph.getEdgeWeights();
+        int m = sources.length;
+
+        int[] component = new int[n];
+        int[] roots = new int[n];
+        for (int v = 0; v < n; v++) {
+            component[v] = v;
+            roots[v] = v;
+        }
+        int rootCount = n;
+
+        AtomicLongArray cheapest = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            cheapest.set(v, NONE);
+        }
+
+        UnionFind uf = new UnionFind(n);
+        List<Edge> mstEdges = new ArrayList<>(n - 1);
+        int totalCost = 0;
+
+        while (rootCount > 1) {
+            operationCount += pool.invoke(new CheapestEdgeTask(
+                    sources, targets, weights, component, cheapest, 0, m));
+
+            boolean merged = false;
+            for (int i = 0; i < rootCount; i++) {
+                int root = roots[i];
+                long key = cheapest.get(root);
+                if (key == NONE) {
+                    continue;
+                }
+                cheapest.set(root, NONE);
+                int e = (int) key;
+                operationCount++;
+                if (uf.union(sources[e], targets[e])) {
+                    mstEdges.add(graph.getEdge(e));
+                    totalCost += weights[e];
+                    merged = true;
+                }
+            }
+            if (!merged) {
+                break;
+            }
+
+            operationCount += pool.invoke(new RelabelTask(uf, component, 0, n));
+
+            int kept = 0;
+            for (int i = 0; i < rootCount; i++) {
+                if (component[roots[i]] == roots[i]) {
+                    roots[kept++] = roots[i];
+                }
+            }
+            rootCount = kept;
+        }
+
+        MSTMetrics metrics = MSTMetrics.ofTotal(System.nanoTime() - startTime);
+        metrics.graphBuildNanos = graph.getBuildNanos();
+        metrics.recordUnionFind(uf);
+
+        return MSTResult.builder(mstEdges, totalCost)
+                .operationCount(operationCount)
+                .graphSize(graph.getNodeCount(), graph.getEdgeCount())
+                .metrics(metrics)
+                .build();
+    }
+
+    private static long pack(int weight, int edgeId) {
+        return ((long) weight << 32) | edgeId;
+    }
+
+    private static void offer(AtomicLongArray cheapest, int component, long key) {
+        long current = cheapest.get(component);
+        while (key < current) {
+            if (cheapest.compareAndSet(component, current, key)) {
+                return;
+            }
+            current = cheapest.get(component);
+        }
+    }
+
+    // Tasks only live inside one findMST call and are never serialized
+    @SuppressWarnings("serial")
+    private static class CheapestEdgeTask extends RecursiveTask<Long> {
+        private final int[] sources;
+        private final int[] targets;
+        private final int[] weights;
+        private final int[] component;
+        private final AtomicLongArray cheapest;
+        private final int from;
+        private final int to;
+
+        CheapestEdgeTask(int[] sources, int[] targets, int[] weights, int[] component,
+                         AtomicLongArray cheapest, int from, int to) {
+            this.sources = sources;
+            this.targets = targets;
+            this.weights = weights;
+            this.component = component;
+            this.cheapest = cheapest;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int e = from; e < to; e++) {
+                    int cu = component[sources[e]];
+                    int cv = component[targets[e]];
+                    if (cu != cv) {
+                        long key = pack(weights[e], e);
+                        offer(cheapest, cu, key);
+                        offer(cheapest, cv, key);
+                    }
+                }
+                return (long) (to - from);
+            }
+            int mid = (from + to) >>> 1;
+            CheapestEdgeTask left = new CheapestEdgeTask(sources, targets, weights, component, cheapest, from, mid);
+            CheapestEdgeTask right = new CheapestEdgeTask(sources, targets, weights, component, cheapest, mid, to);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+
+    // Tasks only live inside one findMST call and are never serialized
+    @SuppressWarnings("serial")
+    private static class RelabelTask extends RecursiveTask<Long> {
+        private final UnionFind uf;
+        private final int[] component;
+        private final int from;
+        private final int to;
+
+        RelabelTask(UnionFind uf, int[] component, int from, int to) {
+            this.uf = uf;
+            this.component = component;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int v = from; v < to; v++) {
+                    component[v] = uf.root(v);
+                }
+                return (long) (to - from);
+            }
+            int mid = (from + to) >>> 1;
+            RelabelTask left = new RelabelTask(uf, component, from, mid);
+            RelabelTask right = new RelabelTask(uf, component, mid, to);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+}
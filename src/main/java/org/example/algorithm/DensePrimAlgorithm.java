@@ -0,0 +1,104 @@
+package org.example.algorithm;
+
+import org.example.model.Edge;
+import org.example.model.Graph;
+import java.util.*;
+
+/**
+ * Classic array-scan Prim over {@link Graph#getWeightMatrix()}: O(V²) time, no heap.
+ * Beats the heap-based {@link PrimAlgorithm} once the graph is close to complete,
+ * because every step is a sequential pass over one matrix row.
+ */
+public class DensePrimAlgorithm implements MSTAlgorithm {
+    private static final int ABSENT = Integer.MAX_VALUE;
+
+    /**
+     * True when E is at least half of the V(V-1)/2 possible edges, the point where the
+     * O(V²) scan wins over O(E log V). {@link MSTPlanner} only considers this engine then.
+     */
+    public static boolean prefersDense(Graph graph) {
+        long n = graph.getNodeCount();
+        return n > 1 && 4L * graph.getEdgeCount() >= n * (n - 1);
+    }
+
+    @Override
+    public String getName() {
+        return "dense-prim";
+    }
+
+    @Override
+    public MSTResult findMST(Graph graph) {
+        long startTime = System.nanoTime();
+        int operationCount = 0;
+
+        int n = graph.getNodeCount();
+        if (n == 0) {
+            return MSTResult.builder(new ArrayList<>(), 0).build();
+        }
+
+        int[] matrix = graph.getWeightMatrix();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(dist, ABSENT);
+        Arrays.fill(parent, -1);
+        dist[0] = 0;
+
+        List<Edge> mstEdges = new ArrayList<>(n - 1);
+        int totalCost = 0;
+
+        for (int step = 0; step < n; step++) {
+            int u = -1;
+            int best = ABSENT;
+            for (int v = 0; v < n; v++) {
+                if (!inTree[v] && dist[v] < best) {
+                    best = dist[v];
+                    u = v;
+                }
+            }
+            operationCount += n;
+            if (u < 0) {
+                break;
+            }
+
+            inTree[u] = true;
+            if (parent[u] >= 0) {
+                mstEdges.add(findEdge(graph, parent[u], u, best));
+                totalCost += best;
+            }
+
+            int row = u * n;
+            for (int v = 0; v < n; v++) {
+                int w = matrix[row + v];
+                if (w < dist[v] && !inTree[v]) {
+                    dist[v] = w;
+                    parent[v] = u;
+                }
+            }
+            operationCount += n;
+        }
+
+        MSTMetrics metrics = MSTMetrics.ofTotal(System.nanoTime() - startTime);
+        metrics.graphBuildNanos = graph.getBuildNanos();
+
+        return MSTResult.builder(mstEdges, totalCost)
+                .operationCount(operationCount)
+                .graphSize(graph.getNodeCount(), graph.getEdgeCount())
+                .metrics(metrics)
+                .build();
+    }
+
+    // The matrix only holds weights; recover the Edge object from u's adjacency list
+    private static Edge findEdge(Graph graph, int from, int to, int weight) {
+        int[] offsets = graph.getAdjacencyOffsets();
+        int[] targets = graph.getAdjacencyTargets();
+        int[] weights = graph.getAdjacencyWeights();
+        int[] edgeIds = graph.getAdjacencyEdgeIds();
+        for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+            if (targets[i] == to && weights[i] == weight) {
+                return graph.getEdge(edgeIds[i]);
+            }
+        }
+        throw new IllegalStateException("No edge " + from + "-" + to + " with weight " + weight);
+    }
+}
@@ -0,0 +1,598 @@
+package org.example.algorithm;
+
+import org.example.model.Edge;
+import org.example.model.Graph;
+import java.util.*;
+
+/**
+ * Minimum spanning forest maintained under edge insertions, deletions and weight changes.
+ * <p>
+ * The forest lives in a link-cut tree in which every edge is a node of its own carrying the
+ * edge weight, so the heaviest edge on any tree path is an O(log n) amortized query. That makes
+ * insertions, weight decreases and removals of non-tree edges O(log n). Removing a tree edge (or
+ * making it heavier) splits its tree in two; the replacement is the lightest edge crossing the cut,
+ * found by walking the smaller of the two halves, so the cost is proportional to that half's
+ * incident edges rather than to the whole graph.
+ * <p>
+ * Edge ids start with the ids of the initial {@link Graph}'s edges; inserted edges get fresh ids.
+ */
+public class DynamicMST {
+    private static final int NIL = -1;
+
+    private final Graph graph;
+    private final int n;
+
+    // Edge table, indexed by edge id
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeWeight;
+    private boolean[] alive;
+    private boolean[] inTree;
+    private int edgeCount;
+    private int liveEdgeCount;
+
+    // Live edges incident to each vertex, and the subset that is in the forest
+    private final IncidenceLists incident;
+    private final IncidenceLists treeIncident;
+    // Scratch for smallerSide, reused across updates: a breadth-first queue per side and each
+    // vertex's visit stamp. The finished side is left in side[0..sideSize), stamped sideStamp
+    private final int[] queueU;
+    private final int[] queueV;
+    private final int[] visited;
+    private int stamp;
+    private int[] side;
+    private int sideSize;
+    private int sideStamp;
+
+    private final LinkCutTree forest;
+    private long totalCost;
+    private int treeEdgeCount;
+    // Edges examined and forest links/cuts made since construction, like the batch algorithms count them
+    private long operationCount;
+
+    public DynamicMST(Graph graph) {
+        this.graph = graph;
+        this.n = graph.getNodeCount();
+        int capacity = Math.max(16, graph.getEdgeCount() * 2);
+        this.edgeFrom = new int[capacity];
+        this.edgeTo = new int[capacity];
+        this.edgeWeight = new int[capacity];
+        this.alive = new boolean[capacity];
+        this.inTree = new boolean[capacity];
+
+        this.incident = new IncidenceLists(n, capacity);
+        this.treeIncident = new IncidenceLists(n, capacity);
+        this.queueU = new int[n];
+        this.queueV = new int[n];
+        this.visited = new int[n];
+        this.forest = new LinkCutTree(n + capacity);
+
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        int[] weights = graph.getEdgeWeights();
+        for (int e = 0; e < sources.length; e++) {
+            addEdgeRecord(sources[e], targets[e], weights[e]);
+        }
+
+        // Seed the forest with Kruskal's choice instead of inserting edge by edge
+        UnionFind uf = new UnionFind(n);
+        for (int e : EdgeSorter.sortedByWeight(weights)) {
+            operationCount++;
+            if (uf.union(sources[e], targets[e])) {
+                attach(e);
+            }
+        }
+    }
+
+    public int insertEdge(String from, String to, int weight) {
+        int id = addEdgeRecord(index(from), index(to), weight);
+        offerNonTreeEdge(id);
+        return id;
+    }
+
+    public void deleteEdge(int edgeId) {
+        checkAlive(edgeId);
+        alive[edgeId] = false;
+        liveEdgeCount--;
+        incident.remove(edgeId, edgeFrom[edgeId], edgeTo[edgeId]);
+        if (inTree[edgeId]) {
+            detachAndReplace(edgeId);
+        }
+    }
+
+    public void updateWeight(int edgeId, int newWeight) {
+        checkAlive(edgeId);
+        int oldWeight = edgeWeight[edgeId];
+        if (newWeight == oldWeight) {
+            return;
+        }
+
+        if (inTree[edgeId]) {
+            edgeWeight[edgeId] = newWeight;
+            totalCost += (long) newWeight - oldWeight;
+            forest.setValue(n + edgeId, newWeight);
+            if (newWeight > oldWeight) {
+                // A lighter edge across the cut may now beat it; the edge itself stays a candidate
+                detachAndReplace(edgeId);
+            }
+        } else {
+            edgeWeight[edgeId] = newWeight;
+            if (newWeight < oldWeight) {
+                offerNonTreeEdge(edgeId);
+            }
+        }
+    }
+
+    /**
+     * Id of the lightest live edge between the two nodes, or -1 if there is none.
+     */
+    public int findEdge(String from, String to) {
+        int u = index(from);
+        int v = index(to);
+        int best = -1;
+        for (int slot = incident.first(u); slot != NIL; slot = incident.next(slot)) {
+            int e = IncidenceLists.edge(slot);
+            if (other(e, u) == v && (best < 0 || edgeWeight[e] < edgeWeight[best])) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    public int getWeight(int edgeId) {
+        checkAlive(edgeId);
+        return edgeWeight[edgeId];
+    }
+
+    public boolean isTreeEdge(int edgeId) {
+        return edgeId >= 0 && edgeId < edgeCount && alive[edgeId] && inTree[edgeId];
+    }
+
+    public int getLiveEdgeCount() {
+        return liveEdgeCount;
+    }
+
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * Edges examined plus forest links and cuts performed since construction.
+     */
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    /**
+     * Snapshot of the current minimum spanning forest. O(number of edge ids ever created).
+     */
+    public MSTResult getCurrentMST() {
+        long startTime = System.nanoTime();
+        List<Edge> edges = new ArrayList<>(treeEdgeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            if (alive[e] && inTree[e]) {
+                edges.add(new Edge(graph.getNodeName(edgeFrom[e]), graph.getNodeName(edgeTo[e]), edgeWeight[e]));
+            }
+        }
+        MSTMetrics metrics = MSTMetrics.ofTotal(System.nanoTime() - startTime);
+        metrics.assemblyNanos = metrics.totalNanos;
+        return MSTResult.builder(edges, (int) totalCost)
+                .operationCount(operationCount)
+                .graphSize(n, liveEdgeCount)
+                .metrics(metrics)
+                .build();
+    }
+
+    /**
+     * Rebuilds a static {@link Graph} from the live edges, e.g. to rerun a batch algorithm.
+     */
+    public Graph toGraph() {
+        List<Edge> edges = new ArrayList<>(liveEdgeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            if (alive[e]) {
+                edges.add(new Edge(graph.getNodeName(edgeFrom[e]), graph.getNodeName(edgeTo[e]), edgeWeight[e]));
+            }
+        }
+        return new Graph(graph.getNodes(), edges);
+    }
+
+    private int addEdgeRecord(int u, int v, int weight) {
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeFrom.length * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+            inTree = Arrays.copyOf(inTree, capacity);
+            forest.ensureCapacity(n + capacity);
+            incident.ensureCapacity(capacity);
+            treeIncident.ensureCapacity(capacity);
+        }
+        int id = edgeCount++;
+        edgeFrom[id] = u;
+        edgeTo[id] = v;
+        edgeWeight[id] = weight;
+        alive[id] = true;
+        liveEdgeCount++;
+        incident.add(id, u, v);
+        return id;
+    }
+
+    // Swaps a non-tree edge into the forest if it is lighter than the heaviest edge on its cycle
+    private void offerNonTreeEdge(int id) {
+        int u = edgeFrom[id];
+        int v = edgeTo[id];
+        operationCount++;
+        if (u == v) {
+            return;
+        }
+        if (!forest.connected(u, v)) {
+            attach(id);
+            return;
+        }
+        int heaviest = forest.pathMax(u, v) - n;
+        if (edgeWeight[heaviest] > edgeWeight[id]) {
+            detach(heaviest);
+            attach(id);
+        }
+    }
+
+    private void detachAndReplace(int id) {
+        int u = edgeFrom[id];
+        int v = edgeTo[id];
+        detach(id);
+
+        smallerSide(u, v);
+        int best = -1;
+        for (int i = 0; i < sideSize; i++) {
+            int x = side[i];
+            for (int slot = incident.first(x); slot != NIL; slot = incident.next(slot)) {
+                int e = IncidenceLists.edge(slot);
+                operationCount++;
+                if (visited[other(e, x)] != sideStamp && (best < 0 || edgeWeight[e] < edgeWeight[best])) {
+                    best = e;
+                }
+            }
+        }
+        if (best >= 0) {
+            attach(best);
+        }
+    }
+
+    // Walks the two trees from u and v in lockstep and keeps the vertices of whichever ends first
+    private void smallerSide(int u, int v) {
+        if (stamp > Integer.MAX_VALUE - 2) {
+            Arrays.fill(visited, 0);
+            stamp = 0;
+        }
+        int stampU = ++stamp;
+        int stampV = ++stamp;
+        visited[u] = stampU;
+        visited[v] = stampV;
+        queueU[0] = u;
+        queueV[0] = v;
+        int headU = 0;
+        int tailU = 1;
+        int headV = 0;
+        int tailV = 1;
+        while (true) {
+            if (headU == tailU) {
+                keepSide(queueU, tailU, stampU);
+                return;
+            }
+            tailU = visitTreeNeighbours(queueU[headU++], queueU, tailU, stampU);
+            if (headV == tailV) {
+                keepSide(queueV, tailV, stampV);
+                return;
+            }
+            tailV = visitTreeNeighbours(queueV[headV++], queueV, tailV, stampV);
+        }
+    }
+
+    private int visitTreeNeighbours(int x, int[] queue, int tail, int mark) {
+        for (int slot = treeIncident.first(x); slot != NIL; slot = treeIncident.next(slot)) {
+            int y = other(IncidenceLists.edge(slot), x);
+            if (visited[y] != mark) {
+                visited[y] = mark;
+                queue[tail++] = y;
+            }
+        }
+        return tail;
+    }
+
+    private void keepSide(int[] queue, int size, int mark) {
+        side = queue;
+        sideSize = size;
+        sideStamp = mark;
+    }
+
+    private void attach(int id) {
+        operationCount++;
+        forest.setValue(n + id, edgeWeight[id]);
+        forest.link(edgeFrom[id], n + id);
+        forest.link(n + id, edgeTo[id]);
+        inTree[id] = true;
+        treeIncident.add(id, edgeFrom[id], edgeTo[id]);
+        totalCost += edgeWeight[id];
+        treeEdgeCount++;
+    }
+
+    private void detach(int id) {
+        operationCount++;
+        forest.cut(edgeFrom[id], n + id);
+        forest.cut(n + id, edgeTo[id]);
+        inTree[id] = false;
+        treeIncident.remove(id, edgeFrom[id], edgeTo[id]);
+        totalCost -= edgeWeight[id];
+        treeEdgeCount--;
+    }
+
+    private int other(int edgeId, int endpoint) {
+        return edgeFrom[edgeId] == endpoint ? edgeTo[edgeId] : edgeFrom[edgeId];
+    }
+
+    private int index(String node) {
+        int index = graph.getNodeIndex(node);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        return index;
+    }
+
+    private void checkAlive(int edgeId) {
+        if (edgeId < 0 || edgeId >= edgeCount || !alive[edgeId]) {
+            throw new IllegalArgumentException("No live edge with id " + edgeId);
+        }
+    }
+
+    /**
+     * Per-vertex doubly linked lists of edge ends, threaded through arrays indexed by slot: an edge's
+     * {@code from} end is slot {@code 2 * id} and its {@code to} end slot {@code 2 * id + 1}, so adding
+     * or removing an edge is O(1) and nothing is boxed.
+     */
+    private static class IncidenceLists {
+        private final int[] head;
+        private int[] next;
+        private int[] prev;
+
+        IncidenceLists(int vertexCount, int edgeCapacity) {
+            head = new int[vertexCount];
+            Arrays.fill(head, NIL);
+            next = new int[0];
+            prev = new int[0];
+            ensureCapacity(edgeCapacity);
+        }
+
+        static int edge(int slot) {
+            return slot >>> 1;
+        }
+
+        void ensureCapacity(int edgeCapacity) {
+            if (2 * edgeCapacity > next.length) {
+                next = Arrays.copyOf(next, 2 * edgeCapacity);
+                prev = Arrays.copyOf(prev, 2 * edgeCapacity);
+            }
+        }
+
+        int first(int vertex) {
+            return head[vertex];
+        }
+
+        int next(int slot) {
+            return next[slot];
+        }
+
+        void add(int id, int from, int to) {
+            link(2 * id, from);
+            link(2 * id + 1, to);
+        }
+
+        void remove(int id, int from, int to) {
+            unlink(2 * id, from);
+            unlink(2 * id + 1, to);
+        }
+
+        private void link(int slot, int vertex) {
+            prev[slot] = NIL;
+            next[slot] = head[vertex];
+            if (head[vertex] != NIL) {
+                prev[head[vertex]] = slot;
+            }
+            head[vertex] = slot;
+        }
+
+        private void unlink(int slot, int vertex) {
+            if (prev[slot] != NIL) {
+                next[prev[slot]] = next[slot];
+            } else {
+                head[vertex] = next[slot];
+            }
+            if (next[slot] != NIL) {
+                prev[next[slot]] = prev[slot];
+            }
+        }
+    }
+
+    /**
+     * Array-based link-cut tree with path reversal and path-maximum aggregation.
+     * Node values default to {@code Integer.MIN_VALUE}, so vertex nodes never win a max query.
+     */
+    private static class LinkCutTree {
+        private int[] left;
+        private int[] right;
+        private int[] parent;
+        private boolean[] reversed;
+        private int[] value;
+        private int[] max;
+
+        LinkCutTree(int capacity) {
+            left = new int[0];
+            right = new int[0];
+            parent = new int[0];
+            reversed = new boolean[0];
+            value = new int[0];
+            max = new int[0];
+            ensureCapacity(capacity);
+        }
+
+        void ensureCapacity(int capacity) {
+            int old = left.length;
+            if (capacity <= old) {
+                return;
+            }
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            reversed = Arrays.copyOf(reversed, capacity);
+            value = Arrays.copyOf(value, capacity);
+            max = Arrays.copyOf(max, capacity);
+            for (int x = old; x < capacity; x++) {
+                left[x] = NIL;
+                right[x] = NIL;
+                parent[x] = NIL;
+                value[x] = Integer.MIN_VALUE;
+                max[x] = x;
+            }
+        }
+
+        void setValue(int x, int newValue) {
+            makeRoot(x);
+            value[x] = newValue;
+            pull(x);
+        }
+
+        boolean connected(int x, int y) {
+            return x == y || findRoot(x) == findRoot(y);
+        }
+
+        void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        void cut(int x, int y) {
+            makeRoot(x);
+            access(y);
+            splay(y);
+            // x is now y's left child and, being adjacent, has no right subtree
+            left[y] = NIL;
+            parent[x] = NIL;
+            pull(y);
+        }
+
+        /** Node holding the maximum value on the tree path between x and y. */
+        int pathMax(int x, int y) {
+            makeRoot(x);
+            access(y);
+            splay(y);
+            return max[y];
+        }
+
+        private int findRoot(int x) {
+            access(x);
+            splay(x);
+            push(x);
+            while (left[x] != NIL) {
+                x = left[x];
+                push(x);
+            }
+            splay(x);
+            return x;
+        }
+
+        private void makeRoot(int x) {
+            access(x);
+            splay(x);
+            reversed[x] ^= true;
+            push(x);
+        }
+
+        private void access(int x) {
+            int last = NIL;
+            for (int y = x; y != NIL; y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                pull(y);
+                last = y;
+            }
+            splay(x);
+        }
+
+        private boolean isSplayRoot(int x) {
+            int p = parent[x];
+            return p == NIL || (left[p] != x && right[p] != x);
+        }
+
+        private void splay(int x) {
+            // Push pending reversals from the splay root down to x first
+            int[] path = new int[16];
+            int depth = 0;
+            for (int y = x; ; y = parent[y]) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = y;
+                if (isSplayRoot(y)) {
+                    break;
+                }
+            }
+            while (depth > 0) {
+                push(path[--depth]);
+            }
+
+            while (!isSplayRoot(x)) {
+                int p = parent[x];
+                if (!isSplayRoot(p)) {
+                    int g = parent[p];
+                    boolean zigZig = (left[g] == p) == (left[p] == x);
+                    rotate(zigZig ? p : x);
+                }
+                rotate(x);
+            }
+        }
+
+        private void rotate(int x) {
+            int p = parent[x];
+            int g = parent[p];
+            boolean pWasRoot = isSplayRoot(p);
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] != NIL) parent[right[x]] = p;
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] != NIL) parent[left[x]] = p;
+                left[x] = p;
+            }
+            parent[p] = x;
+            parent[x] = g;
+            if (!pWasRoot) {
+                if (left[g] == p) {
+                    left[g] = x;
+                } else {
+                    right[g] = x;
+                }
+            }
+            pull(p);
+            pull(x);
+        }
+
+        private void push(int x) {
+            if (reversed[x]) {
+                int tmp = left[x];
+                left[x] = right[x];
+                right[x] = tmp;
+                if (left[x] != NIL) reversed[left[x]] ^= true;
+                if (right[x] != NIL) reversed[right[x]] ^= true;
+                reversed[x] = false;
+            }
+        }
+
+        private void pull(int x) {
+            int best = x;
+            if (left[x] != NIL && value[max[left[x]]] > value[best]) best = max[left[x]];
+            if (right[x] != NIL && value[max[right[x]]] > value[best]) best = max[right[x]];
+            max[x] = best;
+        }
+    }
+}
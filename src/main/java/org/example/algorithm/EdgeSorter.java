@@ -0,0 +1,114 @@
+package org.example.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Orders edge ids by weight without boxing. Picks counting sort for narrow weight ranges,
+ * LSD radix sort for moderate ones and a packed {@code long[]} comparison sort otherwise.
+ * Every strategy is stable, so equal weights keep their original edge-id order.
+ */
+public final class EdgeSorter {
+    static final int SMALL_INPUT = 64;
+    static final int MAX_COUNTING_RANGE = 1 << 20;
+    static final int MAX_RADIX_RANGE = 1 << 24;
+    private static final int RADIX_BITS = 8;
+
+    private EdgeSorter() {
+    }
+
+    public static int[] sortedByWeight(int[] weights) {
+        int[] order = new int[weights.length];
+        for (int e = 0; e < order.length; e++) {
+            order[e] = e;
+        }
+        sortByWeight(order, 0, order.length, weights);
+        return order;
+    }
+
+    /**
+     * Sorts {@code edgeIds[from, to)} in place by {@code weights[edgeId]}.
+     */
+    public static void sortByWeight(int[] edgeIds, int from, int to, int[] weights) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            int w = weights[edgeIds[i]];
+            if (w < min) min = w;
+            if (w > max) max = w;
+        }
+        long range = (long) max - min + 1;
+
+        if (length < SMALL_INPUT) {
+            comparisonSort(edgeIds, from, to, weights);
+        } else if (range <= Math.max(length, 256) && range <= MAX_COUNTING_RANGE) {
+            countingSort(edgeIds, from, to, weights, min, (int) range);
+        } else if (range <= MAX_RADIX_RANGE) {
+            radixSort(edgeIds, from, to, weights, min, (int) range);
+        } else {
+            comparisonSort(edgeIds, from, to, weights);
+        }
+    }
+
+    private static void countingSort(int[] edgeIds, int from, int to, int[] weights, int min, int range) {
+        int[] counts = new int[range + 1];
+        for (int i = from; i < to; i++) {
+            counts[weights[edgeIds[i]] - min + 1]++;
+        }
+        for (int k = 0; k < range; k++) {
+            counts[k + 1] += counts[k];
+        }
+
+        int[] buffer = new int[to - from];
+        for (int i = from; i < to; i++) {
+            int e = edgeIds[i];
+            buffer[counts[weights[e] - min]++] = e;
+        }
+        System.arraycopy(buffer, 0, edgeIds, from, buffer.length);
+    }
+
+    private static void radixSort(int[] edgeIds, int from, int to, int[] weights, int min, int range) {
+        int length = to - from;
+        int[] src = Arrays.copyOfRange(edgeIds, from, to);
+        int[] dst = new int[length];
+        int[] counts = new int[(1 << RADIX_BITS) + 1];
+        int mask = (1 << RADIX_BITS) - 1;
+
+        for (int shift = 0; (range - 1) >>> shift > 0; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                counts[((weights[src[i]] - min) >>> shift & mask) + 1]++;
+            }
+            for (int k = 0; k < mask + 1; k++) {
+                counts[k + 1] += counts[k];
+            }
+            for (int i = 0; i < length; i++) {
+                int e = src[i];
+                dst[counts[(weights[e] - min) >>> shift & mask]++] = e;
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        System.arraycopy(src, 0, edgeIds, from, length);
+    }
+
+    private static void comparisonSort(int[] edgeIds, int from, int to, int[] weights) {
+        // Position in the low word keeps the sort stable
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = ((long) weights[edgeIds[i]] << 32) | (i - from);
+        }
+        Arrays.sort(keys);
+
+        int[] sorted = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = edgeIds[from + (int) keys[i]];
+        }
+        System.arraycopy(sorted, 0, edgeIds, from, sorted.length);
+    }
+}
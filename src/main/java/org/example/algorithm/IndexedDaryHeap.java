@@ -0,0 +1,141 @@
+package org.example.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap over the items {@code 0..capacity-1} with int keys and decrease-key support.
+ * Each item can be in the heap at most once; {@code position} maps an item to its heap slot.
+ */
+public class IndexedDaryHeap {
+    private final int arity;
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] position;
+    private int size;
+    private long pushCount;
+    private long popCount;
+    private long decreaseKeyCount;
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.keys = new int[capacity];
+        this.position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int item) {
+        return position[item] >= 0;
+    }
+
+    public long getPushCount() {
+        return pushCount;
+    }
+
+    public long getPopCount() {
+        return popCount;
+    }
+
+    public long getDecreaseKeyCount() {
+        return decreaseKeyCount;
+    }
+
+    public int keyOf(int item) {
+        return keys[item];
+    }
+
+    public void insert(int item, int key) {
+        if (contains(item)) {
+            throw new IllegalStateException("Item already in heap: " + item);
+        }
+        pushCount++;
+        keys[item] = key;
+        heap[size] = item;
+        position[item] = size;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int item, int key) {
+        if (key > keys[item]) {
+            throw new IllegalArgumentException("New key " + key + " is greater than current key " + keys[item]);
+        }
+        decreaseKeyCount++;
+        keys[item] = key;
+        siftUp(position[item]);
+    }
+
+    public int pollMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        popCount++;
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int slot) {
+        int item = heap[slot];
+        int key = keys[item];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = item;
+        position[item] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int item = heap[slot];
+        int key = keys[item];
+        while (true) {
+            int firstChild = slot * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int bestSlot = firstChild;
+            int bestKey = keys[heap[firstChild]];
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                int childKey = keys[heap[c]];
+                if (childKey < bestKey) {
+                    bestKey = childKey;
+                    bestSlot = c;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int child = heap[bestSlot];
+            heap[slot] = child;
+            position[child] = slot;
+            slot = bestSlot;
+        }
+        heap[slot] = item;
+        position[item] = slot;
+    }
+}
@@ -2,86 +2,277 @@ package org.example.algorithm;
 
 import org.example.model.Edge;
 import org.example.model.Graph;
+import org.example.util.FlightEvents;
 import java.util.*;
 
-public class KruskalAlgorithm {
+public class KruskalAlgorithm implements MSTAlgorithm {
 
-    private static class UnionFind {
-        private final Map<String, String> parent;
-        private final Map<String, Integer> rank;
+    public enum Variant {
+        /** Sort every edge, then scan. */
+        CLASSIC,
+        /** Filter-Kruskal: partition around a pivot and drop heavy edges that would close a cycle. */
+        FILTER
+    }
 
-        public UnionFind(List<String> nodes) {
-            parent = new HashMap<>();
-            rank = new HashMap<>();
-            for (String node : nodes) {
-                parent.put(node, node);
-                rank.put(node, 0);
-            }
-        }
+    static final int FILTER_BASE_CASE = 128;
 
-        public String find(String node) {
-            if (!parent.get(node).equals(node)) {
-                parent.put(node, find(parent.get(node)));
-            }
-            return parent.get(node);
-        }
+    private final Variant variant;
+    private final boolean spanningForest;
 
-        public boolean union(String node1, String node2) {
-            String root1 = find(node1);
-            String root2 = find(node2);
+    public KruskalAlgorithm() {
+        this(Variant.CLASSIC);
+    }
 
-            if (root1.equals(root2)) {
-                return false;
-            }
+    public KruskalAlgorithm(Variant variant) {
+        this(variant, false);
+    }
+
+    /**
+     * @param spanningForest if set, label the components up front, stop once every component is
+     *                       spanned and report the component of each node
+     */
+    public KruskalAlgorithm(Variant variant, boolean spanningForest) {
+        this.variant = Objects.requireNonNull(variant, "variant");
+        this.spanningForest = spanningForest;
+    }
 
-            int rank1 = rank.get(root1);
-            int rank2 = rank.get(root2);
+    public Variant getVariant() {
+        return variant;
+    }
 
-            if (rank1 < rank2) {
-                parent.put(root1, root2);
-            } else if (rank1 > rank2) {
-                parent.put(root2, root1);
-            } else {
-                parent.put(root2, root1);
-                rank.put(root1, rank1 + 1);
-            }
+    public boolean isSpanningForest() {
+        return spanningForest;
+    }
 
-            return true;
-        }
+    @Override
+    public String getName() {
+        return variant == Variant.FILTER ? "filter-kruskal" : "kruskal";
     }
 
+    @Override
     public MSTResult findMST(Graph graph) {
+        FlightEvents.MSTRun event = new FlightEvents.MSTRun();
+        event.begin();
+        MSTResult result = variant == Variant.FILTER ? findMSTFiltered(graph) : findMSTClassic(graph);
+        event.end();
+        result.commitFlightEvent(event, getName());
+        return result;
+    }
+
+    private MSTResult findMSTClassic(Graph graph) {
         long startTime = System.nanoTime();
         int operationCount = 0;
 
         if (graph.getNodeCount() == 0) {
-            return new MSTResult(new ArrayList<>(), 0, 0, 0, 0, 0);
+            return MSTResult.builder(new ArrayList<>(), 0).build();
         }
 
-        List<Edge> edges = new ArrayList<>(graph.getEdges());
-        Collections.sort(edges);
-        operationCount += edges.size();
+        MSTMetrics metrics = new MSTMetrics();
+        metrics.graphBuildNanos = graph.getBuildNanos();
 
-        UnionFind uf = new UnionFind(graph.getNodes());
-        List<Edge> mstEdges = new ArrayList<>();
+        int targetSize = targetSize(graph);
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        int[] weights = graph.getEdgeWeights();
+        long sortStart = System.nanoTime();
+        int[] order = EdgeSorter.sortedByWeight(weights);
+        operationCount += order.length;
+
+        long scanStart = System.nanoTime();
+        metrics.sortNanos = scanStart - sortStart;
+        UnionFind uf = new UnionFind(graph.getNodeCount());
+        int[] treeEdges = new int[Math.max(targetSize, 0)];
+        int treeSize = 0;
         int totalCost = 0;
 
-        for (Edge edge : edges) {
+        for (int e : order) {
+            if (treeSize == targetSize) {
+                break;
+            }
             operationCount++;
-            if (uf.union(edge.getFrom(), edge.getTo())) {
-                mstEdges.add(edge);
-                totalCost += edge.getWeight();
+            if (uf.union(sources[e], targets[e])) {
+                treeEdges[treeSize++] = e;
+                totalCost += weights[e];
+            }
+        }
+
+        long assemblyStart = System.nanoTime();
+        metrics.unionFindNanos = assemblyStart - scanStart;
+        metrics.recordUnionFind(uf);
+        List<Edge> mstEdges = assemble(graph, treeEdges, treeSize);
+
+        long endTime = System.nanoTime();
+        metrics.assemblyNanos = endTime - assemblyStart;
+        metrics.totalNanos = endTime - startTime;
+
+        return MSTResult.builder(mstEdges, totalCost)
+                .operationCount(operationCount)
+                .graphSize(graph.getNodeCount(), graph.getEdgeCount())
+                .components(componentIds(graph), componentCount(graph))
+                .metrics(metrics)
+                .build();
+    }
+
+    private MSTResult findMSTFiltered(Graph graph) {
+        long startTime = System.nanoTime();
+
+        if (graph.getNodeCount() == 0) {
+            return MSTResult.builder(new ArrayList<>(), 0).build();
+        }
+
+        MSTMetrics metrics = new MSTMetrics();
+        metrics.graphBuildNanos = graph.getBuildNanos();
+
+        FilterRun run = new FilterRun(graph, targetSize(graph));
+        int[] edgeIds = new int[graph.getEdgeCount()];
+        for (int e = 0; e < edgeIds.length; e++) {
+            edgeIds[e] = e;
+        }
+        long runStart = System.nanoTime();
+        run.filterKruskal(edgeIds, 0, edgeIds.length);
+
+        long assemblyStart = System.nanoTime();
+        // Sorting happens in the base cases; partitioning, filtering and unions make up the rest
+        metrics.sortNanos = run.sortNanos;
+        metrics.unionFindNanos = assemblyStart - runStart - run.sortNanos;
+        metrics.recordUnionFind(run.uf);
+        List<Edge> mstEdges = assemble(graph, run.treeEdges, run.treeSize);
+
+        long endTime = System.nanoTime();
+        metrics.assemblyNanos = endTime - assemblyStart;
+        metrics.totalNanos = endTime - startTime;
+
+        return MSTResult.builder(mstEdges, run.totalCost)
+                .operationCount(run.operationCount)
+                .graphSize(graph.getNodeCount(), graph.getEdgeCount())
+                .filteredEdgeCount(run.filteredCount)
+                .components(componentIds(graph), componentCount(graph))
+                .metrics(metrics)
+                .build();
+    }
+
+    private static List<Edge> assemble(Graph graph, int[] treeEdges, int treeSize) {
+        List<Edge> mstEdges = new ArrayList<>(treeSize);
+        for (int i = 0; i < treeSize; i++) {
+            mstEdges.add(graph.getEdge(treeEdges[i]));
+        }
+        return mstEdges;
+    }
+
+    // A spanning forest has one edge fewer than nodes per component
+    private int targetSize(Graph graph) {
+        return graph.getNodeCount() - (spanningForest ? graph.getComponentCount() : 1);
+    }
+
+    private int[] componentIds(Graph graph) {
+        return spanningForest ? graph.getComponentLabels() : null;
+    }
+
+    private int componentCount(Graph graph) {
+        return spanningForest ? graph.getComponentCount() : 0;
+    }
+
+    private static class FilterRun {
+        private final int[] sources;
+        private final int[] targets;
+        private final int[] weights;
+        private final UnionFind uf;
+        private final int targetSize;
+        private final int[] treeEdges;
+        private int treeSize;
+        private int totalCost;
+        private long sortNanos;
+        private int operationCount;
+        private int filteredCount;
+
+        FilterRun(Graph graph, int targetSize) {
+            this.sources = graph.getEdgeSources();
+            this.targets = graph.getEdgeTargets();
+            this.weights = graph.getEdgeWeights();
+            this.uf = new UnionFind(graph.getNodeCount());
+            this.targetSize = targetSize;
+            this.treeEdges = new int[Math.max(targetSize, 0)];
+        }
+
+        void filterKruskal(int[] edgeIds, int from, int to) {
+            if (done() || from >= to) {
+                return;
+            }
+            if (to - from <= FILTER_BASE_CASE) {
+                kruskalBase(edgeIds, from, to);
+                return;
+            }
 
-                if (mstEdges.size() == graph.getNodeCount() - 1) {
-                    break;
+            int pivot = medianOfThree(weights[edgeIds[from]],
+                    weights[edgeIds[(from + to) >>> 1]], weights[edgeIds[to - 1]]);
+            int mid = partition(edgeIds, from, to, pivot, false);
+            if (mid == from) {
+                // pivot is the minimum: put the edges equal to it on the light side instead
+                mid = partition(edgeIds, from, to, pivot, true);
+                if (mid == to) {
+                    kruskalBase(edgeIds, from, to);
+                    return;
                 }
             }
+
+            filterKruskal(edgeIds, from, mid);
+            if (done()) {
+                return;
+            }
+            int kept = filter(edgeIds, mid, to);
+            filterKruskal(edgeIds, mid, kept);
         }
 
-        long endTime = System.nanoTime();
-        long executionTime = (endTime - startTime) / 1_000_000;
+        private void kruskalBase(int[] edgeIds, int from, int to) {
+            long sortStart = System.nanoTime();
+            EdgeSorter.sortByWeight(edgeIds, from, to, weights);
+            sortNanos += System.nanoTime() - sortStart;
+            operationCount += to - from;
+            for (int i = from; i < to && !done(); i++) {
+                int e = edgeIds[i];
+                operationCount++;
+                if (uf.union(sources[e], targets[e])) {
+                    treeEdges[treeSize++] = e;
+                    totalCost += weights[e];
+                }
+            }
+        }
 
-        return new MSTResult(mstEdges, totalCost, executionTime, operationCount,
-                graph.getNodeCount(), graph.getEdgeCount());
+        // Moves edges lighter than the pivot (or equal to it, if inclusive) to the front
+        private int partition(int[] edgeIds, int from, int to, int pivot, boolean inclusive) {
+            int store = from;
+            for (int i = from; i < to; i++) {
+                operationCount++;
+                int w = weights[edgeIds[i]];
+                if (w < pivot || (inclusive && w == pivot)) {
+                    int tmp = edgeIds[store];
+                    edgeIds[store++] = edgeIds[i];
+                    edgeIds[i] = tmp;
+                }
+            }
+            return store;
+        }
+
+        // Compacts edges whose endpoints are still in different components to the front
+        private int filter(int[] edgeIds, int from, int to) {
+            int store = from;
+            for (int i = from; i < to; i++) {
+                operationCount++;
+                int e = edgeIds[i];
+                if (uf.find(sources[e]) != uf.find(targets[e])) {
+                    edgeIds[store++] = e;
+                }
+            }
+            filteredCount += to - store;
+            return store;
+        }
+
+        private boolean done() {
+            return treeSize == targetSize;
+        }
+
+        private static int medianOfThree(int a, int b, int c) {
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        }
     }
-}
\ No newline at end of file
+}
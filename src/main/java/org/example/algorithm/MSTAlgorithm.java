@@ -0,0 +1,13 @@
+package org.example.algorithm;
+
+import org.example.model.Graph;
+
+public interface MSTAlgorithm {
+
+    MSTResult findMST(Graph graph);
+
+    /**
+     * Short stable identifier, used in output files and the planner's calibration cache.
+     */
+    String getName();
+}
@@ -0,0 +1,118 @@
+package org.example.algorithm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Nanosecond phase timings and event counters of one MST run. Phases are timed around whole
+ * loops rather than individual operations, so the clock reads do not distort what they measure:
+ * for Prim the {@code heap} phase is the main loop (dominated by the heap) and for Kruskal the
+ * {@code unionFind} phase is the scan over sorted edges. Phases an algorithm does not have stay 0.
+ */
+public class MSTMetrics {
+    long graphBuildNanos;
+    long sortNanos;
+    long unionFindNanos;
+    long heapNanos;
+    long assemblyNanos;
+    long totalNanos;
+
+    long heapPushes;
+    long heapPops;
+    long heapDecreaseKeys;
+    long finds;
+    long unions;
+
+    MSTMetrics() {
+    }
+
+    static MSTMetrics ofTotal(long totalNanos) {
+        MSTMetrics metrics = new MSTMetrics();
+        metrics.totalNanos = totalNanos;
+        return metrics;
+    }
+
+    void recordHeap(IndexedDaryHeap heap) {
+        heapPushes += heap.getPushCount();
+        heapPops += heap.getPopCount();
+        heapDecreaseKeys += heap.getDecreaseKeyCount();
+    }
+
+    void recordUnionFind(UnionFind uf) {
+        finds += uf.getFindCount();
+        unions += uf.getUnionCount();
+    }
+
+    /**
+     * Time the graph's CSR build took, carried along so a run can be attributed end to end.
+     */
+    public long getGraphBuildNanos() {
+        return graphBuildNanos;
+    }
+
+    public long getSortNanos() {
+        return sortNanos;
+    }
+
+    public long getUnionFindNanos() {
+        return unionFindNanos;
+    }
+
+    public long getHeapNanos() {
+        return heapNanos;
+    }
+
+    /**
+     * Time spent turning the chosen edge ids into the result's edge list.
+     */
+    public long getAssemblyNanos() {
+        return assemblyNanos;
+    }
+
+    /**
+     * Wall time of the whole {@code findMST} call; excludes the graph build.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getHeapPushes() {
+        return heapPushes;
+    }
+
+    public long getHeapPops() {
+        return heapPops;
+    }
+
+    public long getHeapDecreaseKeys() {
+        return heapDecreaseKeys;
+    }
+
+    public long getFinds() {
+        return finds;
+    }
+
+    public long getUnions() {
+        return unions;
+    }
+
+    public Map<String, Long> getPhaseNanos() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        phases.put("graphBuild", graphBuildNanos);
+        phases.put("sort", sortNanos);
+        phases.put("unionFind", unionFindNanos);
+        phases.put("heap", heapNanos);
+        phases.put("assembly", assemblyNanos);
+        return phases;
+    }
+
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("heapPushes", heapPushes);
+        counters.put("heapPops", heapPops);
+        counters.put("heapDecreaseKeys", heapDecreaseKeys);
+        counters.put("finds", finds);
+        counters.put("unions", unions);
+        return counters;
+    }
+}
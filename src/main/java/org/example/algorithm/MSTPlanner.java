@@ -0,0 +1,254 @@
+package org.example.algorithm;
+
+import org.example.model.Edge;
+import org.example.model.Graph;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Picks the engine expected to be fastest for a graph. Each engine has a complexity term
+ * computed from V, E, density and weight range, and a per-machine coefficient (nanoseconds
+ * per unit of that term) measured by a short calibration run. Coefficients are cached in a
+ * properties file keyed by JVM version, architecture and core count, so calibration only
+ * runs once per machine.
+ */
+public class MSTPlanner {
+    static final String FINGERPRINT_KEY = "fingerprint";
+    /** Below this edge count fork/join overhead outweighs anything Borůvka can win. */
+    static final int MIN_PARALLEL_EDGES = 100_000;
+    // Bump when calibration changes, so coefficients cached by an older version are measured again
+    private static final int CALIBRATION_VERSION = 3;
+
+    private final Map<String, MSTAlgorithm> engines;
+    private final Map<String, Double> coefficients;
+
+    public MSTPlanner(Map<String, Double> coefficients) {
+        this.engines = defaultEngines();
+        this.coefficients = new HashMap<>(coefficients);
+        for (String name : engines.keySet()) {
+            if (!this.coefficients.containsKey(name)) {
+                throw new IllegalArgumentException("Missing coefficient for engine " + name);
+            }
+        }
+    }
+
+    /**
+     * Loads coefficients from {@code cacheFile}, or calibrates and writes them there if the
+     * file is missing, unreadable or was produced on a different machine/JVM.
+     */
+    public static MSTPlanner loadOrCalibrate(Path cacheFile) {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(cacheFile)) {
+            try (Reader reader = Files.newBufferedReader(cacheFile)) {
+                properties.load(reader);
+                if (fingerprint().equals(properties.getProperty(FINGERPRINT_KEY))) {
+                    Map<String, Double> coefficients = new HashMap<>();
+                    for (String name : defaultEngines().keySet()) {
+                        coefficients.put(name, Double.parseDouble(properties.getProperty(name)));
+                    }
+                    return new MSTPlanner(coefficients);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable planner cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+
+        MSTPlanner planner = calibrate();
+        try {
+            planner.save(cacheFile);
+        } catch (IOException e) {
+            System.err.println("Could not write planner cache " + cacheFile + ": " + e.getMessage());
+        }
+        return planner;
+    }
+
+    /**
+     * Times every engine on the sparse, dense and large synthetic graphs it is applicable to:
+     * dense Prim only where {@link DensePrimAlgorithm#prefersDense} holds, Borůvka only above
+     * {@link #MIN_PARALLEL_EDGES}. Takes a second or two.
+     */
+    public static MSTPlanner calibrate() {
+        List<Graph> samples = Arrays.asList(
+                randomGraph(10_000, 4, 100, new Random(1)),
+                randomGraph(10_000, 4, 1_000_000_000, new Random(2)),
+                randomGraph(300, 150, 1000, new Random(3)),
+                randomGraph(30_000, 4, 1000, new Random(4))
+        );
+
+        Map<String, Double> coefficients = new HashMap<>();
+        for (Map.Entry<String, MSTAlgorithm> entry : defaultEngines().entrySet()) {
+            double logSum = 0;
+            int measured = 0;
+            for (Graph sample : samples) {
+                // Dense Prim is timed on the dense sample only, Borůvka on the large one: below its
+                // threshold fork/join overhead dominates, so small samples would mislead the coefficient
+                // for exactly the graphs Borůvka is considered for
+                if (!isApplicable(entry.getKey(), sample)) {
+                    continue;
+                }
+                long nanos = bestOf(entry.getValue(), sample, 2, 3);
+                logSum += Math.log(Math.max(nanos, 1) / cost(entry.getKey(), sample));
+                measured++;
+            }
+            coefficients.put(entry.getKey(), Math.exp(logSum / measured));
+        }
+        return new MSTPlanner(coefficients);
+    }
+
+    public void save(Path cacheFile) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(FINGERPRINT_KEY, fingerprint());
+        for (Map.Entry<String, Double> entry : coefficients.entrySet()) {
+            properties.setProperty(entry.getKey(), Double.toString(entry.getValue()));
+        }
+        if (cacheFile.getParent() != null) {
+            Files.createDirectories(cacheFile.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(cacheFile)) {
+            properties.store(writer, "MST planner calibration (nanoseconds per cost unit)");
+        }
+    }
+
+    public MSTAlgorithm choose(Graph graph) {
+        // One weight scan serves both Kruskal variants
+        double sortPasses = sortPasses(graph);
+        String best = null;
+        double bestEstimate = Double.MAX_VALUE;
+        for (String name : engines.keySet()) {
+            if (!isApplicable(name, graph)) {
+                continue;
+            }
+            double estimate = coefficients.get(name) * cost(name, graph, sortPasses);
+            if (estimate < bestEstimate) {
+                bestEstimate = estimate;
+                best = name;
+            }
+        }
+        return engines.get(best);
+    }
+
+    public double estimateNanos(String engine, Graph graph) {
+        Double coefficient = coefficients.get(engine);
+        if (coefficient == null) {
+            throw new IllegalArgumentException("Unknown engine " + engine);
+        }
+        return coefficient * cost(engine, graph);
+    }
+
+    public Map<String, Double> getCoefficients() {
+        return Collections.unmodifiableMap(coefficients);
+    }
+
+    private static boolean isApplicable(String engine, Graph graph) {
+        switch (engine) {
+            case "dense-prim":
+                return DensePrimAlgorithm.prefersDense(graph)
+                        && (long) graph.getNodeCount() * graph.getNodeCount() <= 64L * 1024 * 1024;
+            case "boruvka":
+                return graph.getEdgeCount() >= MIN_PARALLEL_EDGES;
+            default:
+                return true;
+        }
+    }
+
+    // Complexity term per engine; the calibrated coefficient turns it into nanoseconds
+    static double cost(String engine, Graph graph) {
+        return cost(engine, graph, sortPasses(graph));
+    }
+
+    private static double cost(String engine, Graph graph, double sortPasses) {
+        double v = Math.max(graph.getNodeCount(), 1);
+        double e = Math.max(graph.getEdgeCount(), 1);
+        double logV = log2(v + 1);
+        switch (engine) {
+            case "prim":
+                return e + v * logV;
+            case "kruskal":
+                return e * sortPasses + e;
+            case "filter-kruskal":
+                return 2 * e + v * logV * log2(e / v + 2) * sortPasses;
+            case "dense-prim":
+                return v * v;
+            case "boruvka":
+                int cores = Runtime.getRuntime().availableProcessors();
+                return e * logV / cores + v * logV;
+            default:
+                throw new IllegalArgumentException("Unknown engine " + engine);
+        }
+    }
+
+    // Mirrors EdgeSorter's strategy choice: how many linear passes sorting the edges costs
+    private static double sortPasses(Graph graph) {
+        int[] weights = graph.getEdgeWeights();
+        if (weights.length < EdgeSorter.SMALL_INPUT) {
+            return log2(weights.length + 1);
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int w : weights) {
+            if (w < min) min = w;
+            if (w > max) max = w;
+        }
+        long range = (long) max - min + 1;
+        if (range <= Math.max(weights.length, 256) && range <= EdgeSorter.MAX_COUNTING_RANGE) {
+            return 1;
+        }
+        if (range <= EdgeSorter.MAX_RADIX_RANGE) {
+            return Math.ceil(log2(range) / 8);
+        }
+        return log2(weights.length);
+    }
+
+    private static Map<String, MSTAlgorithm> defaultEngines() {
+        Map<String, MSTAlgorithm> engines = new LinkedHashMap<>();
+        for (MSTAlgorithm algorithm : Arrays.asList(new PrimAlgorithm(), new KruskalAlgorithm(),
+                new KruskalAlgorithm(KruskalAlgorithm.Variant.FILTER), new DensePrimAlgorithm(),
+                new BoruvkaAlgorithm())) {
+            engines.put(algorithm.getName(), algorithm);
+        }
+        return engines;
+    }
+
+    private static long bestOf(MSTAlgorithm algorithm, Graph graph, int warmups, int runs) {
+        for (int i = 0; i < warmups; i++) {
+            algorithm.findMST(graph);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            algorithm.findMST(graph);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static Graph randomGraph(int nodeCount, int edgesPerNode, int maxWeight, Random random) {
+        List<String> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add("N" + i);
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 1; i < nodeCount; i++) {
+            edges.add(new Edge(nodes.get(random.nextInt(i)), nodes.get(i), random.nextInt(maxWeight) + 1));
+        }
+        for (int i = 0; i < nodeCount * edgesPerNode; i++) {
+            int from = random.nextInt(nodeCount);
+            int to = random.nextInt(nodeCount);
+            if (from != to) {
+                edges.add(new Edge(nodes.get(from), nodes.get(to), random.nextInt(maxWeight) + 1));
+            }
+        }
+        return new Graph(nodes, edges);
+    }
+
+    private static String fingerprint() {
+        return CALIBRATION_VERSION + "/" + System.getProperty("java.version") + "/" + System.getProperty("os.arch")
+                + "/" + Runtime.getRuntime().availableProcessors();
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.algorithm;
 
 import org.example.model.Edge;
+import org.example.util.FlightEvents;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,15 +12,90 @@ public class MSTResult {
     private final int operationCount;
     private final int vertexCount;
     private final int edgeCount;
+    private final int filteredEdgeCount;
+    private final int[] componentIds;
+    private final int componentCount;
+    private final MSTMetrics metrics;
 
-    public MSTResult(List<Edge> edges, int totalCost, long executionTimeMs,
-                     int operationCount, int vertexCount, int edgeCount) {
-        this.edges = edges;
-        this.totalCost = totalCost;
-        this.executionTimeMs = executionTimeMs;
-        this.operationCount = operationCount;
-        this.vertexCount = vertexCount;
-        this.edgeCount = edgeCount;
+    private MSTResult(Builder builder) {
+        this.edges = builder.edges;
+        this.totalCost = builder.totalCost;
+        this.executionTimeMs = builder.metrics.getTotalNanos() / 1_000_000;
+        this.operationCount = builder.operationCount;
+        this.vertexCount = builder.vertexCount;
+        this.edgeCount = builder.edgeCount;
+        this.filteredEdgeCount = builder.filteredEdgeCount;
+        this.componentIds = builder.componentIds;
+        this.componentCount = builder.componentCount;
+        this.metrics = builder.metrics;
+    }
+
+    /**
+     * Starts a result for the given tree edges; every other field defaults to 0 / {@code null}.
+     */
+    public static Builder builder(List<Edge> edges, int totalCost) {
+        return new Builder(edges, totalCost);
+    }
+
+    /**
+     * Named setters for the many int fields, which are too easy to swap in a positional constructor.
+     */
+    public static class Builder {
+        private final List<Edge> edges;
+        private final int totalCost;
+        private int operationCount;
+        private int vertexCount;
+        private int edgeCount;
+        private int filteredEdgeCount;
+        private int[] componentIds;
+        private int componentCount;
+        private MSTMetrics metrics = MSTMetrics.ofTotal(0);
+
+        private Builder(List<Edge> edges, int totalCost) {
+            this.edges = edges;
+            this.totalCost = totalCost;
+        }
+
+        public Builder operationCount(long operationCount) {
+            this.operationCount = (int) Math.min(operationCount, Integer.MAX_VALUE);
+            return this;
+        }
+
+        /**
+         * Size of the input graph the tree was computed from.
+         */
+        public Builder graphSize(int vertexCount, int edgeCount) {
+            this.vertexCount = vertexCount;
+            this.edgeCount = edgeCount;
+            return this;
+        }
+
+        public Builder filteredEdgeCount(int filteredEdgeCount) {
+            this.filteredEdgeCount = filteredEdgeCount;
+            return this;
+        }
+
+        /**
+         * @param componentIds   component of each node (by node index) for a spanning forest, or {@code null}
+         * @param componentCount number of components in {@code componentIds}
+         */
+        public Builder components(int[] componentIds, int componentCount) {
+            this.componentIds = componentIds;
+            this.componentCount = componentCount;
+            return this;
+        }
+
+        /**
+         * Phase timings and counters; the execution time is taken from their total.
+         */
+        public Builder metrics(MSTMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public MSTResult build() {
+            return new MSTResult(this);
+        }
     }
 
     public List<Edge> getEdges() {
@@ -34,6 +110,14 @@ public class MSTResult {
         return executionTimeMs;
     }
 
+    public long getExecutionTimeNanos() {
+        return metrics.getTotalNanos();
+    }
+
+    public MSTMetrics getMetrics() {
+        return metrics;
+    }
+
     public int getOperationCount() {
         return operationCount;
     }
@@ -46,13 +130,63 @@ public class MSTResult {
         return edgeCount;
     }
 
+    /**
+     * Edges discarded before sorting because their endpoints were already connected
+     * (Filter-Kruskal only; 0 for other algorithms).
+     */
+    public int getFilteredEdgeCount() {
+        return filteredEdgeCount;
+    }
+
+    /**
+     * Component id of every node, by node index, when the algorithm ran in spanning-forest mode;
+     * {@code null} otherwise. Each component's tree edges in {@link #getEdges()} form its own MST.
+     */
+    public int[] getComponentIds() {
+        return componentIds;
+    }
+
+    /**
+     * Number of connected components in spanning-forest mode, 0 otherwise.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Commits {@code event} (already begun and ended) with this run's size and phase metrics.
+     */
+    void commitFlightEvent(FlightEvents.MSTRun event, String algorithm) {
+        if (event.shouldCommit()) {
+            event.graphId = FlightEvents.currentGraphId();
+            event.algorithm = algorithm;
+            event.vertices = vertexCount;
+            event.edges = edgeCount;
+            event.totalCost = totalCost;
+            event.graphBuild = metrics.getGraphBuildNanos();
+            event.sort = metrics.getSortNanos();
+            event.unionFind = metrics.getUnionFindNanos();
+            event.heap = metrics.getHeapNanos();
+            event.assembly = metrics.getAssemblyNanos();
+            event.heapPushes = metrics.getHeapPushes();
+            event.heapPops = metrics.getHeapPops();
+            event.heapDecreaseKeys = metrics.getHeapDecreaseKeys();
+            event.finds = metrics.getFinds();
+            event.unions = metrics.getUnions();
+            event.commit();
+        }
+    }
+
     // ===== CSV helpers (metrics & optional edges) =====
     /**
      * Header for a compact per-run metrics CSV.
-     * Columns: dataset, algorithm, totalCost, timeMs, ops, vertices, edges
+     * Columns: dataset, algorithm, totalCost, timeMs, ops, vertices, edges, then the nanosecond
+     * phase timings and the event counters of {@link MSTMetrics}
      */
     public static String csvMetricsHeader() {
-        return "dataset,algorithm,totalCost,timeMs,ops,vertices,edges";
+        return "dataset,algorithm,totalCost,timeMs,ops,vertices,edges," +
+                "timeNs,graphBuildNs,sortNs,unionFindNs,heapNs,assemblyNs," +
+                "heapPushes,heapPops,heapDecreaseKeys,finds,unions";
     }
 
     /**
@@ -68,7 +202,18 @@ public class MSTResult {
                 String.valueOf(executionTimeMs),
                 String.valueOf(operationCount),
                 String.valueOf(vertexCount),
-                String.valueOf(edgeCount)
+                String.valueOf(edgeCount),
+                String.valueOf(metrics.getTotalNanos()),
+                String.valueOf(metrics.getGraphBuildNanos()),
+                String.valueOf(metrics.getSortNanos()),
+                String.valueOf(metrics.getUnionFindNanos()),
+                String.valueOf(metrics.getHeapNanos()),
+                String.valueOf(metrics.getAssemblyNanos()),
+                String.valueOf(metrics.getHeapPushes()),
+                String.valueOf(metrics.getHeapPops()),
+                String.valueOf(metrics.getHeapDecreaseKeys()),
+                String.valueOf(metrics.getFinds()),
+                String.valueOf(metrics.getUnions())
         );
     }
 
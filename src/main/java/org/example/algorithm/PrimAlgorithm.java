@@ -2,58 +2,147 @@ package org.example.algorithm;
 
 import org.example.model.Edge;
 import org.example.model.Graph;
+import org.example.util.FlightEvents;
 import java.util.*;
 
-public class PrimAlgorithm {
+public class PrimAlgorithm implements MSTAlgorithm {
+    public static final int DEFAULT_HEAP_ARITY = 4;
 
+    private final int heapArity;
+    private final boolean spanningForest;
+
+    public PrimAlgorithm() {
+        this(DEFAULT_HEAP_ARITY);
+    }
+
+    public PrimAlgorithm(int heapArity) {
+        this(heapArity, false);
+    }
+
+    /**
+     * @param spanningForest if set, grow a tree from every component instead of stopping at the one
+     *                       containing node 0, and label each node with its component
+     */
+    public PrimAlgorithm(int heapArity, boolean spanningForest) {
+        if (heapArity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + heapArity);
+        }
+        this.heapArity = heapArity;
+        this.spanningForest = spanningForest;
+    }
+
+    public int getHeapArity() {
+        return heapArity;
+    }
+
+    public boolean isSpanningForest() {
+        return spanningForest;
+    }
+
+    @Override
+    public String getName() {
+        return "prim";
+    }
+
+    @Override
     public MSTResult findMST(Graph graph) {
+        FlightEvents.MSTRun event = new FlightEvents.MSTRun();
+        event.begin();
+        MSTResult result = solve(graph);
+        event.end();
+        result.commitFlightEvent(event, getName());
+        return result;
+    }
+
+    private MSTResult solve(Graph graph) {
         long startTime = System.nanoTime();
         int operationCount = 0;
 
-        if (graph.getNodeCount() == 0) {
-            return new MSTResult(new ArrayList<>(), 0, 0, 0, 0, 0);
+        int n = graph.getNodeCount();
+        if (n == 0) {
+            return MSTResult.builder(new ArrayList<>(), 0).build();
         }
 
-        List<Edge> mstEdges = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-        PriorityQueue<Edge> pq = new PriorityQueue<>();
+        int[] offsets = graph.getAdjacencyOffsets();
+        int[] targets = graph.getAdjacencyTargets();
+        int[] weights = graph.getAdjacencyWeights();
+        int[] edgeIds = graph.getAdjacencyEdgeIds();
+        int[] edgeWeights = graph.getEdgeWeights();
+
+        boolean[] inTree = new boolean[n];
+        int[] bestEdge = new int[n];
+        Arrays.fill(bestEdge, -1);
 
-        String startNode = graph.getNodes().get(0);
-        visited.add(startNode);
-        pq.addAll(graph.getAdjacentEdges(startNode));
+        int[] componentIds = spanningForest ? new int[n] : null;
+        int componentCount = 0;
 
+        IndexedDaryHeap heap = new IndexedDaryHeap(n, heapArity);
+        int[] treeEdges = new int[n - 1];
+        int treeSize = 0;
         int totalCost = 0;
 
-        while (!pq.isEmpty() && mstEdges.size() < graph.getNodeCount() - 1) {
-            Edge edge = pq.poll();
-            operationCount++;
+        MSTMetrics metrics = new MSTMetrics();
+        metrics.graphBuildNanos = graph.getBuildNanos();
+        long heapStart = System.nanoTime();
 
-            String nextNode = null;
-            if (visited.contains(edge.getFrom()) && !visited.contains(edge.getTo())) {
-                nextNode = edge.getTo();
-            } else if (visited.contains(edge.getTo()) && !visited.contains(edge.getFrom())) {
-                nextNode = edge.getFrom();
+        // Without forest mode only node 0's component is spanned
+        int roots = spanningForest ? n : 1;
+        for (int root = 0; root < roots; root++) {
+            if (inTree[root]) {
+                continue;
             }
+            heap.insert(root, 0);
+
+            while (!heap.isEmpty()) {
+                int u = heap.pollMin();
+                operationCount++;
+                inTree[u] = true;
+                if (componentIds != null) {
+                    componentIds[u] = componentCount;
+                }
 
-            if (nextNode != null) {
-                visited.add(nextNode);
-                mstEdges.add(edge);
-                totalCost += edge.getWeight();
+                if (bestEdge[u] >= 0) {
+                    treeEdges[treeSize++] = bestEdge[u];
+                    totalCost += edgeWeights[bestEdge[u]];
+                }
 
-                for (Edge adjacentEdge : graph.getAdjacentEdges(nextNode)) {
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
                     operationCount++;
-                    if (!visited.contains(adjacentEdge.getFrom()) ||
-                            !visited.contains(adjacentEdge.getTo())) {
-                        pq.offer(adjacentEdge);
+                    int v = targets[i];
+                    if (inTree[v]) {
+                        continue;
+                    }
+                    int w = weights[i];
+                    if (!heap.contains(v)) {
+                        bestEdge[v] = edgeIds[i];
+                        heap.insert(v, w);
+                    } else if (w < heap.keyOf(v)) {
+                        bestEdge[v] = edgeIds[i];
+                        heap.decreaseKey(v, w);
                     }
                 }
             }
+            componentCount++;
+        }
+
+        long assemblyStart = System.nanoTime();
+        metrics.heapNanos = assemblyStart - heapStart;
+        metrics.recordHeap(heap);
+
+        List<Edge> mstEdges = new ArrayList<>(treeSize);
+        for (int i = 0; i < treeSize; i++) {
+            mstEdges.add(graph.getEdge(treeEdges[i]));
         }
 
         long endTime = System.nanoTime();
-        long executionTime = (endTime - startTime) / 1_000_000;
+        metrics.assemblyNanos = endTime - assemblyStart;
+        metrics.totalNanos = endTime - startTime;
 
-        return new MSTResult(mstEdges, totalCost, executionTime, operationCount,
-                graph.getNodeCount(), graph.getEdgeCount());
+        return MSTResult.builder(mstEdges, totalCost)
+                .operationCount(operationCount)
+                .graphSize(graph.getNodeCount(), graph.getEdgeCount())
+                .components(componentIds, spanningForest ? componentCount : 0)
+                .metrics(metrics)
+                .build();
     }
-}
\ No newline at end of file
+}
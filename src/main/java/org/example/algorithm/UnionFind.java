@@ -0,0 +1,79 @@
+package org.example.algorithm;
+
+/**
+ * Disjoint-set forest over node indices {@code 0..size-1}, union by rank with iterative path halving.
+ */
+class UnionFind {
+    private final int[] parent;
+    private final byte[] rank;
+    private long findCount;
+    private long unionCount;
+
+    public UnionFind(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+    }
+
+    public int find(int node) {
+        findCount++;
+        return findRoot(node);
+    }
+
+    private int findRoot(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Like {@link #find(int)} but never writes, so it is safe to call from several threads
+     * as long as no union runs concurrently. Union by rank keeps the walk O(log n).
+     */
+    public int root(int node) {
+        while (parent[node] != node) {
+            node = parent[node];
+        }
+        return node;
+    }
+
+    public boolean union(int node1, int node2) {
+        findCount += 2;
+        int root1 = findRoot(node1);
+        int root2 = findRoot(node2);
+
+        if (root1 == root2) {
+            return false;
+        }
+
+        if (rank[root1] < rank[root2]) {
+            parent[root1] = root2;
+        } else if (rank[root1] > rank[root2]) {
+            parent[root2] = root1;
+        } else {
+            parent[root2] = root1;
+            rank[root1]++;
+        }
+
+        unionCount++;
+        return true;
+    }
+
+    /**
+     * Calls to {@link #find(int)}, counting the two lookups inside every {@link #union} too.
+     */
+    public long getFindCount() {
+        return findCount;
+    }
+
+    /**
+     * Unions that actually merged two sets.
+     */
+    public long getUnionCount() {
+        return unionCount;
+    }
+}
@@ -1,7 +1,5 @@
 package org.example.model;
 
-import java.util.Objects;
-
 public class Edge implements Comparable<Edge> {
     private final String from;
     private final String to;
@@ -42,8 +40,9 @@ public class Edge implements Comparable<Edge> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(Math.min(from.hashCode(), to.hashCode()),
-                Math.max(from.hashCode(), to.hashCode()), weight);
+        int a = from.hashCode();
+        int b = to.hashCode();
+        return 31 * (31 * Math.min(a, b) + Math.max(a, b)) + weight;
     }
 
     @Override
@@ -3,32 +3,103 @@ package org.example.model;
 import java.util.*;
 
 public class Graph {
-    private final Map<String, Integer> nodeIndexMap;
+    private Map<String, Integer> nodeIndexMap;
     private final List<String> nodes;
-    private final List<Edge> edges;
-    private final int[][] adjacencyMatrix;
+    // Filled on demand for graphs built from indexed edges; racing fills create equal, immutable edges
+    private final Edge[] edges;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final int[] edgeWeights;
+
+    // CSR adjacency: neighbors of node v live in [adjOffsets[v], adjOffsets[v + 1])
+    private final int[] adjOffsets;
+    private final int[] adjTargets;
+    private final int[] adjWeights;
+    private final int[] adjEdgeIds;
+
+    private final long buildNanos;
+
+    private int[][] adjacencyMatrix;
+    private int[] weightMatrix;
+    private int[] componentLabels;
+    private int componentCount;
 
     public Graph(List<String> nodes, List<Edge> edges) {
-        this.nodes = new ArrayList<>(nodes);
-        this.edges = new ArrayList<>(edges);
-        this.nodeIndexMap = new HashMap<>();
+        this(new ArrayList<>(nodes), edges.toArray(new Edge[0]), null, null, null);
+    }
 
-        for (int i = 0; i < nodes.size(); i++) {
-            nodeIndexMap.put(nodes.get(i), i);
+    /**
+     * Builds a graph from edges already resolved to node indices, skipping the name lookups.
+     * The arrays are adopted, not copied, and must not be modified afterwards. Neither the
+     * name-to-index map nor the {@link Edge} objects are built until something asks for them,
+     * so the algorithms, which only read the int arrays, never pay for names.
+     */
+    public static Graph fromIndexedEdges(List<String> nodes, int[] from, int[] to, int[] weights) {
+        if (from.length != to.length || from.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays must have the same length");
         }
+        return new Graph(new ArrayList<>(nodes), new Edge[from.length], from, to, weights);
+    }
 
-        this.adjacencyMatrix = new int[nodes.size()][nodes.size()];
-        for (int i = 0; i < nodes.size(); i++) {
-            Arrays.fill(adjacencyMatrix[i], Integer.MAX_VALUE);
-            adjacencyMatrix[i][i] = 0;
+    private Graph(List<String> nodes, Edge[] edges, int[] from, int[] to, int[] weights) {
+        long start = System.nanoTime();
+        this.nodes = nodes;
+        this.edges = edges;
+
+        int n = nodes.size();
+        int m = edges.length;
+        if (from == null) {
+            Map<String, Integer> indexMap = buildNodeIndexMap();
+            from = new int[m];
+            to = new int[m];
+            weights = new int[m];
+            for (int e = 0; e < m; e++) {
+                Edge edge = edges[e];
+                from[e] = indexMap.get(edge.getFrom());
+                to[e] = indexMap.get(edge.getTo());
+                weights[e] = edge.getWeight();
+            }
+            this.nodeIndexMap = indexMap;
         }
 
-        for (Edge edge : edges) {
-            int from = nodeIndexMap.get(edge.getFrom());
-            int to = nodeIndexMap.get(edge.getTo());
-            adjacencyMatrix[from][to] = edge.getWeight();
-            adjacencyMatrix[to][from] = edge.getWeight();
+        this.adjOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            adjOffsets[from[e] + 1]++;
+            adjOffsets[to[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            adjOffsets[v + 1] += adjOffsets[v];
         }
+
+        this.adjTargets = new int[2 * m];
+        this.adjWeights = new int[2 * m];
+        this.adjEdgeIds = new int[2 * m];
+        int[] cursor = Arrays.copyOf(adjOffsets, n);
+        for (int e = 0; e < m; e++) {
+            int weight = weights[e];
+
+            int slot = cursor[from[e]]++;
+            adjTargets[slot] = to[e];
+            adjWeights[slot] = weight;
+            adjEdgeIds[slot] = e;
+
+            slot = cursor[to[e]]++;
+            adjTargets[slot] = from[e];
+            adjWeights[slot] = weight;
+            adjEdgeIds[slot] = e;
+        }
+
+        this.edgeSources = from;
+        this.edgeTargets = to;
+        this.edgeWeights = weights;
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Nanoseconds spent building the node index and CSR adjacency.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
     }
 
     public int getNodeCount() {
@@ -36,7 +107,7 @@ public class Graph {
     }
 
     public int getEdgeCount() {
-        return edges.size();
+        return edges.length;
     }
 
     public List<String> getNodes() {
@@ -44,49 +115,194 @@ public class Graph {
     }
 
     public List<Edge> getEdges() {
-        return new ArrayList<>(edges);
+        List<Edge> list = new ArrayList<>(edges.length);
+        for (int e = 0; e < edges.length; e++) {
+            list.add(getEdge(e));
+        }
+        return list;
+    }
+
+    public Edge getEdge(int edgeId) {
+        Edge edge = edges[edgeId];
+        if (edge == null) {
+            edge = new Edge(nodes.get(edgeSources[edgeId]), nodes.get(edgeTargets[edgeId]), edgeWeights[edgeId]);
+            edges[edgeId] = edge;
+        }
+        return edge;
+    }
+
+    /**
+     * Node index of each edge's {@code from} endpoint, by edge id. The returned array must not be modified.
+     */
+    public int[] getEdgeSources() {
+        return edgeSources;
+    }
+
+    public int[] getEdgeTargets() {
+        return edgeTargets;
+    }
+
+    public int[] getEdgeWeights() {
+        return edgeWeights;
+    }
+
+    private synchronized Map<String, Integer> nodeIndexMap() {
+        if (nodeIndexMap == null) {
+            nodeIndexMap = buildNodeIndexMap();
+        }
+        return nodeIndexMap;
+    }
+
+    private Map<String, Integer> buildNodeIndexMap() {
+        Map<String, Integer> indexMap = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); i++) {
+            indexMap.put(nodes.get(i), i);
+        }
+        return indexMap;
     }
 
     public int getNodeIndex(String node) {
-        return nodeIndexMap.getOrDefault(node, -1);
+        return nodeIndexMap().getOrDefault(node, -1);
     }
 
     public String getNodeName(int index) {
         return nodes.get(index);
     }
 
-    public int[][] getAdjacencyMatrix() {
+    public int getDegree(int node) {
+        return adjOffsets[node + 1] - adjOffsets[node];
+    }
+
+    /**
+     * CSR offsets, length V + 1. The neighbors of node {@code v} are stored in
+     * {@link #getAdjacencyTargets()} between {@code offsets[v]} (inclusive) and
+     * {@code offsets[v + 1]} (exclusive). The returned array must not be modified.
+     */
+    public int[] getAdjacencyOffsets() {
+        return adjOffsets;
+    }
+
+    public int[] getAdjacencyTargets() {
+        return adjTargets;
+    }
+
+    public int[] getAdjacencyWeights() {
+        return adjWeights;
+    }
+
+    /**
+     * Index into {@link #getEdges()} of the edge behind each adjacency slot.
+     */
+    public int[] getAdjacencyEdgeIds() {
+        return adjEdgeIds;
+    }
+
+    /**
+     * Builds the V×V weight matrix on first use. Absent edges are {@code Integer.MAX_VALUE}.
+     * Costs O(V²) memory, so only callers that really need a matrix should ask for it.
+     */
+    public synchronized int[][] getAdjacencyMatrix() {
+        if (adjacencyMatrix == null) {
+            int n = nodes.size();
+            int[][] matrix = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                Arrays.fill(matrix[i], Integer.MAX_VALUE);
+                matrix[i][i] = 0;
+            }
+            for (int v = 0; v < n; v++) {
+                for (int i = adjOffsets[v]; i < adjOffsets[v + 1]; i++) {
+                    matrix[v][adjTargets[i]] = adjWeights[i];
+                }
+            }
+            adjacencyMatrix = matrix;
+        }
         return adjacencyMatrix;
     }
 
+    /**
+     * Row-major V×V weight matrix in one contiguous array, built on first use: the weight of
+     * {@code u-v} is at {@code u * V + v}. Parallel edges keep the lightest weight and absent
+     * edges are {@code Integer.MAX_VALUE}. Only worth its O(V²) memory for dense graphs.
+     */
+    public synchronized int[] getWeightMatrix() {
+        if (weightMatrix == null) {
+            int n = nodes.size();
+            if ((long) n * n > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Too many nodes for a flat weight matrix: " + n);
+            }
+            int[] matrix = new int[n * n];
+            Arrays.fill(matrix, Integer.MAX_VALUE);
+            for (int v = 0; v < n; v++) {
+                int row = v * n;
+                for (int i = adjOffsets[v]; i < adjOffsets[v + 1]; i++) {
+                    int cell = row + adjTargets[i];
+                    if (adjWeights[i] < matrix[cell]) {
+                        matrix[cell] = adjWeights[i];
+                    }
+                }
+            }
+            weightMatrix = matrix;
+        }
+        return weightMatrix;
+    }
+
     public List<Edge> getAdjacentEdges(String node) {
         List<Edge> adjacent = new ArrayList<>();
-        for (Edge edge : edges) {
-            if (edge.getFrom().equals(node) || edge.getTo().equals(node)) {
-                adjacent.add(edge);
-            }
+        int v = getNodeIndex(node);
+        if (v < 0) {
+            return adjacent;
+        }
+        for (int i = adjOffsets[v]; i < adjOffsets[v + 1]; i++) {
+            adjacent.add(getEdge(adjEdgeIds[i]));
         }
         return adjacent;
     }
 
     public boolean isConnected() {
-        if (nodes.isEmpty()) return true;
+        return getComponentCount() <= 1;
+    }
 
-        boolean[] visited = new boolean[nodes.size()];
-        dfs(0, visited);
+    /**
+     * Connected-component id of every node, computed on first use by an iterative BFS over the
+     * CSR adjacency in O(V + E). Components are numbered 0, 1, ... in order of their lowest node
+     * index. The returned array must not be modified.
+     */
+    public synchronized int[] getComponentLabels() {
+        if (componentLabels == null) {
+            int n = nodes.size();
+            int[] labels = new int[n];
+            Arrays.fill(labels, -1);
+            int[] queue = new int[n];
+            int count = 0;
 
-        for (boolean v : visited) {
-            if (!v) return false;
+            for (int start = 0; start < n; start++) {
+                if (labels[start] >= 0) {
+                    continue;
+                }
+                int head = 0;
+                int tail = 0;
+                labels[start] = count;
+                queue[tail++] = start;
+                while (head < tail) {
+                    int v = queue[head++];
+                    for (int i = adjOffsets[v]; i < adjOffsets[v + 1]; i++) {
+                        int u = adjTargets[i];
+                        if (labels[u] < 0) {
+                            labels[u] = count;
+                            queue[tail++] = u;
+                        }
+                    }
+                }
+                count++;
+            }
+            componentCount = count;
+            componentLabels = labels;
         }
-        return true;
+        return componentLabels;
     }
 
-    private void dfs(int node, boolean[] visited) {
-        visited[node] = true;
-        for (int i = 0; i < nodes.size(); i++) {
-            if (!visited[i] && adjacencyMatrix[node][i] != Integer.MAX_VALUE) {
-                dfs(i, visited);
-            }
-        }
+    public synchronized int getComponentCount() {
+        getComponentLabels();
+        return componentCount;
     }
-}
\ No newline at end of file
+}
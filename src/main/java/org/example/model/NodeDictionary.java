@@ -0,0 +1,52 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns node names to dense ints {@code 0, 1, ...}, shared by every graph built from the same
+ * input so that recurring names ({@code District_1}, ...) are hashed against one table and stored
+ * once. Lookups are lock-free; only a name seen for the first time takes the lock.
+ */
+public class NodeDictionary {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // Written under the lock before the id is published through ids, so readers holding an id see it
+    private volatile String[] names = new String[64];
+    private int size;
+
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : add(name);
+    }
+
+    /**
+     * Id of {@code name}, or -1 if it was never interned.
+     */
+    public int lookup(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int add(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = names;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = name;
+        names = current;
+        ids.put(name, size);
+        return size++;
+    }
+}
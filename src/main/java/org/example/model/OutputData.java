@@ -1,6 +1,8 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
+import java.util.Map;
 
 public class OutputData {
     private List<GraphResult> results;
@@ -13,12 +15,14 @@ public class OutputData {
         this.results = results;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class GraphResult {
         private int id;
         private List<String> nodes;
         private List<EdgeData> edges;
         private AlgorithmResult prim;
         private AlgorithmResult kruskal;
+        private AlgorithmResult mst;
 
         public int getId() {
             return id;
@@ -59,15 +63,38 @@ public class OutputData {
         public void setKruskal(AlgorithmResult kruskal) {
             this.kruskal = kruskal;
         }
+
+        public AlgorithmResult getMst() {
+            return mst;
+        }
+
+        public void setMst(AlgorithmResult mst) {
+            this.mst = mst;
+        }
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class AlgorithmResult {
+        private String algorithm;
         private List<EdgeData> mstEdges;
         private int totalCost;
         private int vertexCount;
         private int originalEdgeCount;
         private int operationCount;
         private long executionTimeMs;
+        private Long executionTimeNanos;
+        private Map<String, Long> phaseNanos;
+        private Map<String, Long> counters;
+        private Integer componentCount;
+        private List<Integer> componentIds;
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
 
         public List<EdgeData> getMstEdges() {
             return mstEdges;
@@ -116,6 +143,59 @@ public class OutputData {
         public void setExecutionTimeMs(long executionTimeMs) {
             this.executionTimeMs = executionTimeMs;
         }
+
+        public Long getExecutionTimeNanos() {
+            return executionTimeNanos;
+        }
+
+        public void setExecutionTimeNanos(Long executionTimeNanos) {
+            this.executionTimeNanos = executionTimeNanos;
+        }
+
+        /**
+         * Nanoseconds per phase: graphBuild, sort, unionFind, heap and assembly.
+         */
+        public Map<String, Long> getPhaseNanos() {
+            return phaseNanos;
+        }
+
+        public void setPhaseNanos(Map<String, Long> phaseNanos) {
+            this.phaseNanos = phaseNanos;
+        }
+
+        /**
+         * Event counts: heapPushes, heapPops, heapDecreaseKeys, finds and unions.
+         */
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        public void setCounters(Map<String, Long> counters) {
+            this.counters = counters;
+        }
+
+        /**
+         * Number of connected components; only present when the graph is disconnected.
+         */
+        public Integer getComponentCount() {
+            return componentCount;
+        }
+
+        public void setComponentCount(Integer componentCount) {
+            this.componentCount = componentCount;
+        }
+
+        /**
+         * Component id of each node, in the order of the graph's {@code nodes}; only present when
+         * the graph is disconnected.
+         */
+        public List<Integer> getComponentIds() {
+            return componentIds;
+        }
+
+        public void setComponentIds(List<Integer> componentIds) {
+            this.componentIds = componentIds;
+        }
     }
 
     public static class EdgeData {
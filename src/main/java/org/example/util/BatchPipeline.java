@@ -0,0 +1,539 @@
+package org.example.util;
+
+import org.example.algorithm.*;
+import org.example.model.*;
+import org.example.visualization.GraphVisualizer;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a batch of graphs through five stages connected by bounded queues:
+ * parse (build the {@link Graph}), solve (Prim and Kruskal), render (draw the image),
+ * encode (write the PNG) and serialize (build the {@link OutputData.GraphResult}). Graphs enter the pipeline
+ * largest first so the long jobs do not end up as stragglers. The serialize stage
+ * reorders finished graphs and hands them to a {@link ResultSink} in input order as
+ * soon as every earlier graph is done, so output is deterministic. To have it ordered by
+ * graph id as well, feed graphs in id order: {@link JSONHandler#openInputById} and the
+ * binary overload of {@code run} do, and {@link #run(List)} sorts its results. With a
+ * {@link ResultCache} set, graphs whose content was solved before skip the solve and
+ * render stages and reuse the stored results and image.
+ */
+public class BatchPipeline {
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private final int workers;
+    private final int queueCapacity;
+    private final GraphVisualizer visualizer;
+    private final String graphOutputDir;
+    private final MSTPlanner planner;
+    private ResultCache cache;
+    // Only touched by the single serialize thread while a batch runs
+    private final Map<String, LatencyHistogram> histograms = new TreeMap<>();
+
+    public BatchPipeline(int workers, GraphVisualizer visualizer, String graphOutputDir) {
+        this(workers, DEFAULT_QUEUE_CAPACITY, visualizer, graphOutputDir, null);
+    }
+
+    public BatchPipeline(int workers, int queueCapacity, GraphVisualizer visualizer, String graphOutputDir) {
+        this(workers, queueCapacity, visualizer, graphOutputDir, null);
+    }
+
+    /**
+     * @param workers        solver threads; parsing gets a quarter of that, at least one
+     * @param queueCapacity  capacity of each queue between stages
+     * @param visualizer     renderer, or {@code null} to skip the render stage
+     * @param graphOutputDir directory for the rendered PNGs
+     * @param planner        if set, each graph is solved once by the engine it picks and reported as
+     *                       {@code mst}; if {@code null}, Prim and Kruskal both run for comparison
+     */
+    public BatchPipeline(int workers, int queueCapacity, GraphVisualizer visualizer, String graphOutputDir,
+                         MSTPlanner planner) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.visualizer = visualizer;
+        this.graphOutputDir = graphOutputDir;
+        this.planner = planner;
+    }
+
+    /**
+     * Reuses and records results in {@code cache}; {@code null} (the default) disables caching.
+     */
+    public void setResultCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Distribution of every phase timing and counter across the graphs solved so far, keyed by
+     * {@code <algorithm>.<metric>}, e.g. {@code prim.heapNanos}. Cached graphs are not included.
+     * Read it after {@code run} returns.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Runs the whole list and returns the results sorted by graph id.
+     */
+    public List<OutputData.GraphResult> run(List<InputData.GraphData> graphs) throws IOException {
+        List<OutputData.GraphResult> results = new ArrayList<>(graphs.size());
+        run(graphs.iterator(), Math.max(graphs.size(), 1), results::add);
+        results.sort(Comparator.comparingInt(OutputData.GraphResult::getId));
+        return results;
+    }
+
+    /**
+     * Pulls graphs from {@code graphs} while earlier ones are already being solved.
+     * Largest-first ordering is applied within a window of {@code lookahead} pending graphs,
+     * which also bounds how many parsed-but-unscheduled graphs are held in memory. A graph is
+     * never held back for more than {@code lookahead} newer ones, so results keep streaming out
+     * even when sizes grow along the input.
+     * {@code sink} is called from a single pipeline thread, once per graph, in input order.
+     *
+     * @return number of graphs processed
+     */
+    public int run(Iterator<InputData.GraphData> graphs, int lookahead, ResultSink sink) throws IOException {
+        return runJobs(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return graphs.hasNext();
+            }
+
+            @Override
+            public Job next() {
+                return new Job(graphs.next());
+            }
+        }, lookahead, sink);
+    }
+
+    /**
+     * Like {@link #run(Iterator, int, ResultSink)}, for a binary graph file: each graph is built
+     * straight from its mapped index arrays, so the parse stage has no names to look up. The file's
+     * index gives every id up front, so graphs are fed, and results emitted, in ascending id order.
+     */
+    public int run(BinaryGraphReader graphs, int lookahead, ResultSink sink) throws IOException {
+        int[] ids = graphs.getGraphIds();
+        int[] order = graphs.positionsById();
+        Iterator<Graph> built = graphs.graphs(order);
+        return runJobs(new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return built.hasNext();
+            }
+
+            @Override
+            public Job next() {
+                return new Job(ids[order[position++]], built.next());
+            }
+        }, lookahead, sink);
+    }
+
+    private int runJobs(Iterator<Job> jobs, int lookahead, ResultSink sink) throws IOException {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must be positive: " + lookahead);
+        }
+        TreeSet<Job> pending = new TreeSet<>(
+                Comparator.comparingLong(Job::size).reversed().thenComparingInt(j -> j.index));
+        TreeSet<Job> arrivals = new TreeSet<>(Comparator.comparingInt(j -> j.index));
+        Reorderer reorderer = new Reorderer(sink);
+
+        int parseThreads = Math.max(1, workers / 4);
+        // Drawing and PNG encoding are both CPU-bound; separate stages let one graph encode while the next is drawn
+        int renderThreads = visualizer != null ? workers : 1;
+        int encodeThreads = visualizer != null ? Math.max(1, workers / 2) : 1;
+        int serializeThreads = 1;
+
+        BlockingQueue<Job> parseQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Job> solveQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Job> renderQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Job> encodeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Job> serializeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        // Unbounded: the caller drains it only after it has finished feeding the pipeline
+        BlockingQueue<Job> doneQueue = new LinkedBlockingQueue<>();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        JSONHandler jsonHandler = new JSONHandler();
+
+        List<Thread> threads = new ArrayList<>();
+        threads.addAll(startStage("parse", parseThreads, parseQueue, solveQueue, workers, failure,
+                job -> parse(job, jsonHandler)));
+        threads.addAll(startStage("solve", workers, solveQueue, renderQueue, renderThreads, failure,
+                this::solve));
+        threads.addAll(startStage("render", renderThreads, renderQueue, encodeQueue, encodeThreads, failure,
+                this::render));
+        threads.addAll(startStage("encode", encodeThreads, encodeQueue, serializeQueue, serializeThreads, failure,
+                this::encode));
+        threads.addAll(startStage("serialize", serializeThreads, serializeQueue, doneQueue, 1, failure,
+                job -> {
+                    serialize(job);
+                    reorderer.accept(job);
+                }));
+
+        int index = 0;
+        try {
+            while (jobs.hasNext() && failure.get() == null) {
+                Job job = jobs.next();
+                job.index = index++;
+                pending.add(job);
+                arrivals.add(job);
+                if (pending.size() >= lookahead) {
+                    parseQueue.put(dispatch(pending, arrivals, job.index, lookahead));
+                }
+            }
+            while (!pending.isEmpty()) {
+                parseQueue.put(dispatch(pending, arrivals, index - 1, lookahead));
+            }
+            for (int i = 0; i < parseThreads; i++) {
+                parseQueue.put(Job.POISON);
+            }
+            while (doneQueue.take() != Job.POISON) {
+                // results already went to the sink; just wait for the pipeline to drain
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            threads.forEach(Thread::interrupt);
+            throw new IOException("Batch interrupted", e);
+        } catch (UncheckedIOException e) {
+            threads.forEach(Thread::interrupt);
+            throw e.getCause();
+        }
+
+        if (failure.get() != null) {
+            throw new IOException("Batch failed: " + failure.get().getMessage(), failure.get());
+        }
+
+        return index;
+    }
+
+    /**
+     * Largest pending job, unless the oldest has waited for {@code lookahead} newer ones: the
+     * serialize stage cannot emit anything after it, so holding it longer only buffers results.
+     */
+    private static Job dispatch(TreeSet<Job> pending, TreeSet<Job> arrivals, int newestIndex, int lookahead) {
+        Job oldest = arrivals.first();
+        Job next = newestIndex - oldest.index >= lookahead ? oldest : pending.first();
+        pending.remove(next);
+        arrivals.remove(next);
+        return next;
+    }
+
+    private void parse(Job job, JSONHandler jsonHandler) throws IOException {
+        if (cache != null) {
+            String mode = planner != null ? "auto" : "compare";
+            job.cacheKey = job.data != null ? ResultCache.key(job.data, mode) : ResultCache.key(job.graph, mode);
+            job.cached = cache.get(job.cacheKey, visualizer != null);
+            if (job.cached != null) {
+                return;
+            }
+        }
+        if (job.graph == null) {
+            job.graph = jsonHandler.createGraph(job.data);
+        }
+    }
+
+    private void solve(Job job) {
+        if (job.cached != null) {
+            System.out.println("Graph ID: " + job.id + " (cached)");
+            return;
+        }
+        Graph graph = job.graph;
+        boolean connected = graph.isConnected();
+        if (!connected) {
+            System.out.println("  Graph " + job.id + " has " + graph.getComponentCount() +
+                    " components; solving a spanning forest");
+        }
+
+        if (planner != null) {
+            // The planner's engines assume one component; Kruskal spans every component in one pass
+            MSTAlgorithm engine = connected ? planner.choose(graph)
+                    : new KruskalAlgorithm(KruskalAlgorithm.Variant.CLASSIC, true);
+            job.mstAlgorithm = engine.getName();
+            job.mstResult = engine.findMST(graph);
+
+            System.out.println("Graph ID: " + job.id +
+                    " (Nodes: " + graph.getNodeCount() + ", Edges: " + graph.getEdgeCount() + ")" +
+                    " " + job.mstAlgorithm + " -> Cost: " + job.mstResult.getTotalCost() +
+                    ", Time: " + job.mstResult.getExecutionTimeMs() + "ms" +
+                    ", Operations: " + job.mstResult.getOperationCount());
+            return;
+        }
+
+        job.primResult = new PrimAlgorithm(PrimAlgorithm.DEFAULT_HEAP_ARITY, true).findMST(graph);
+        job.kruskalResult = new KruskalAlgorithm(KruskalAlgorithm.Variant.CLASSIC, true).findMST(graph);
+
+        System.out.println("Graph ID: " + job.id +
+                " (Nodes: " + graph.getNodeCount() + ", Edges: " + graph.getEdgeCount() + ")" +
+                " Prim's -> Cost: " + job.primResult.getTotalCost() +
+                ", Time: " + job.primResult.getExecutionTimeMs() + "ms" +
+                ", Operations: " + job.primResult.getOperationCount() +
+                " | Kruskal's -> Cost: " + job.kruskalResult.getTotalCost() +
+                ", Time: " + job.kruskalResult.getExecutionTimeMs() + "ms" +
+                ", Operations: " + job.kruskalResult.getOperationCount());
+    }
+
+    private void render(Job job) {
+        if (job.cached == null && visualizer != null) {
+            MSTResult shown = job.mstResult != null ? job.mstResult : job.primResult;
+            MSTResult other = job.mstResult != null ? job.mstResult : job.kruskalResult;
+            job.image = visualizer.render(job.graph, shown, other, job.id);
+        }
+        // The graph is no longer needed downstream (unless it is the only copy of the input); let it be collected
+        if (job.data != null) {
+            job.graph = null;
+        }
+    }
+
+    private void encode(Job job) throws IOException {
+        if (visualizer == null) {
+            return;
+        }
+        if (job.cached != null) {
+            cache.copyImage(job.cacheKey, imagePath(job));
+            return;
+        }
+        visualizer.write(job.image, job.id, graphOutputDir);
+        job.image = null;
+    }
+
+    private void serialize(Job job) throws IOException {
+        if (job.cached != null) {
+            job.result = createBaseResult(job);
+            job.result.setPrim(job.cached.getPrim());
+            job.result.setKruskal(job.cached.getKruskal());
+            job.result.setMst(job.cached.getMst());
+            return;
+        }
+        job.result = createBaseResult(job);
+        if (job.mstResult != null) {
+            job.result.setMst(createAlgorithmResult(job.mstAlgorithm, job.mstResult));
+        } else {
+            job.result.setPrim(createAlgorithmResult("prim", job.primResult));
+            job.result.setKruskal(createAlgorithmResult("kruskal", job.kruskalResult));
+        }
+        for (OutputData.AlgorithmResult result : Arrays.asList(job.result.getPrim(), job.result.getKruskal(),
+                job.result.getMst())) {
+            if (result != null) {
+                recordHistograms(result);
+            }
+        }
+        if (cache != null) {
+            cache.put(job.cacheKey, job.result, visualizer != null ? imagePath(job) : null);
+        }
+    }
+
+    private void recordHistograms(OutputData.AlgorithmResult result) {
+        String prefix = result.getAlgorithm() + ".";
+        histograms.computeIfAbsent(prefix + "totalNanos", k -> new LatencyHistogram())
+                .record(result.getExecutionTimeNanos());
+        result.getPhaseNanos().forEach((phase, nanos) ->
+                histograms.computeIfAbsent(prefix + phase + "Nanos", k -> new LatencyHistogram()).record(nanos));
+        result.getCounters().forEach((counter, value) ->
+                histograms.computeIfAbsent(prefix + counter, k -> new LatencyHistogram()).record(value));
+    }
+
+    private Path imagePath(Job job) {
+        return Paths.get(graphOutputDir, "graph_" + job.id + ".png");
+    }
+
+    private static List<Thread> startStage(String name, int threadCount, BlockingQueue<Job> in,
+                                           BlockingQueue<Job> out, int downstreamThreads,
+                                           AtomicReference<Throwable> failure, StageTask task) {
+        AtomicInteger running = new AtomicInteger(threadCount);
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (Job job = in.take(); job != Job.POISON; job = in.take()) {
+                        if (failure.get() == null) {
+                            // Lets the algorithms' flight recorder events name the graph they solve
+                            FlightEvents.setCurrentGraphId(job.id);
+                            try {
+                                task.process(job);
+                            } catch (Throwable e) {
+                                // Errors too: a dead stage thread would never pass the poison on and run() would hang
+                                failure.compareAndSet(null, e);
+                            } finally {
+                                FlightEvents.clearCurrentGraphId();
+                            }
+                        }
+                        out.put(job);
+                    }
+                    if (running.decrementAndGet() == 0) {
+                        for (int i = 0; i < downstreamThreads; i++) {
+                            out.put(Job.POISON);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "mst-" + name + "-" + (t + 1));
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    public static OutputData.GraphResult createGraphResult(InputData.GraphData graphData,
+                                                           MSTResult primResult,
+                                                           MSTResult kruskalResult) {
+        OutputData.GraphResult result = createBaseResult(graphData);
+        result.setPrim(createAlgorithmResult("prim", primResult));
+        result.setKruskal(createAlgorithmResult("kruskal", kruskalResult));
+        return result;
+    }
+
+    public static OutputData.GraphResult createPlannedResult(InputData.GraphData graphData,
+                                                             String algorithm, MSTResult mstResult) {
+        OutputData.GraphResult result = createBaseResult(graphData);
+        result.setMst(createAlgorithmResult(algorithm, mstResult));
+        return result;
+    }
+
+    private static OutputData.GraphResult createBaseResult(Job job) {
+        if (job.data != null) {
+            return createBaseResult(job.data);
+        }
+        Graph graph = job.graph;
+        OutputData.GraphResult result = new OutputData.GraphResult();
+        result.setId(job.id);
+        result.setNodes(graph.getNodes());
+
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        int[] weights = graph.getEdgeWeights();
+        List<OutputData.EdgeData> edges = new ArrayList<>(sources.length);
+        for (int e = 0; e < sources.length; e++) {
+            edges.add(new OutputData.EdgeData(graph.getNodeName(sources[e]), graph.getNodeName(targets[e]), weights[e]));
+        }
+        result.setEdges(edges);
+        return result;
+    }
+
+    private static OutputData.GraphResult createBaseResult(InputData.GraphData graphData) {
+        OutputData.GraphResult result = new OutputData.GraphResult();
+        result.setId(graphData.getId());
+        result.setNodes(graphData.getNodes());
+
+        List<OutputData.EdgeData> edges = new ArrayList<>();
+        for (InputData.EdgeData e : graphData.getEdges()) {
+            edges.add(new OutputData.EdgeData(e.getFrom(), e.getTo(), e.getWeight()));
+        }
+        result.setEdges(edges);
+        return result;
+    }
+
+    public static OutputData.AlgorithmResult createAlgorithmResult(String algorithm, MSTResult mstResult) {
+        OutputData.AlgorithmResult result = new OutputData.AlgorithmResult();
+        result.setAlgorithm(algorithm);
+
+        List<OutputData.EdgeData> mstEdges = new ArrayList<>();
+        for (Edge e : mstResult.getEdges()) {
+            mstEdges.add(new OutputData.EdgeData(e.getFrom(), e.getTo(), e.getWeight()));
+        }
+
+        result.setMstEdges(mstEdges);
+        result.setTotalCost(mstResult.getTotalCost());
+        result.setVertexCount(mstResult.getVertexCount());
+        result.setOriginalEdgeCount(mstResult.getEdgeCount());
+        result.setOperationCount(mstResult.getOperationCount());
+        result.setExecutionTimeMs(mstResult.getExecutionTimeMs());
+        result.setExecutionTimeNanos(mstResult.getExecutionTimeNanos());
+        result.setPhaseNanos(mstResult.getMetrics().getPhaseNanos());
+        result.setCounters(mstResult.getMetrics().getCounters());
+
+        if (mstResult.getComponentCount() > 1) {
+            List<Integer> componentIds = new ArrayList<>(mstResult.getComponentIds().length);
+            for (int id : mstResult.getComponentIds()) {
+                componentIds.add(id);
+            }
+            result.setComponentCount(mstResult.getComponentCount());
+            result.setComponentIds(componentIds);
+        }
+
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(OutputData.GraphResult result) throws IOException;
+    }
+
+    // Only touched by the single serialize thread
+    private static class Reorderer {
+        private final ResultSink sink;
+        private final Map<Integer, OutputData.GraphResult> waiting = new HashMap<>();
+        private int nextIndex;
+
+        Reorderer(ResultSink sink) {
+            this.sink = sink;
+        }
+
+        void accept(Job job) throws IOException {
+            waiting.put(job.index, job.result);
+            for (OutputData.GraphResult ready = waiting.remove(nextIndex); ready != null;
+                 ready = waiting.remove(nextIndex)) {
+                sink.accept(ready);
+                nextIndex++;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageTask {
+        void process(Job job) throws Exception;
+    }
+
+    private static class Job {
+        static final Job POISON = new Job(-1, (Graph) null);
+
+        final int id;
+        // Exactly one of data and graph is set on entry; graph is then built from data in the parse stage
+        final InputData.GraphData data;
+        int index;
+        Graph graph;
+        MSTResult primResult;
+        MSTResult kruskalResult;
+        String mstAlgorithm;
+        MSTResult mstResult;
+        BufferedImage image;
+        String cacheKey;
+        OutputData.GraphResult cached;
+        OutputData.GraphResult result;
+
+        Job(InputData.GraphData data) {
+            this.id = data.getId();
+            this.data = data;
+        }
+
+        Job(int id, Graph graph) {
+            this.id = id;
+            this.data = null;
+            this.graph = graph;
+        }
+
+        long size() {
+            return data != null ? (long) data.getNodes().size() + data.getEdges().size()
+                    : (long) graph.getNodeCount() + graph.getEdgeCount();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.example.util;
+
+import org.example.model.Graph;
+import org.example.model.InputData;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads the binary container written by {@link BinaryGraphWriter} through {@link FileChannel#map}.
+ * Only the header, dictionary and index are decoded up front; each graph block is mapped on
+ * demand, so any graph id can be opened without touching the others. Counts and indices read
+ * from the file are checked before use, so a corrupt file fails with an {@link IOException}.
+ */
+public class BinaryGraphReader implements Closeable {
+    private final FileChannel channel;
+    private final String[] names;
+    private final int[] graphIds;
+    private final long[] graphOffsets;
+    private final long dictionaryOffset;
+    private final Map<Integer, Integer> positionById;
+
+    public BinaryGraphReader(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            if (channel.size() < BinaryGraphWriter.HEADER_BYTES) {
+                throw new IOException("Not a binary graph file: " + file);
+            }
+            MappedByteBuffer header = map(0, BinaryGraphWriter.HEADER_BYTES);
+            if (header.getInt() != BinaryGraphWriter.MAGIC) {
+                throw new IOException("Not a binary graph file: " + file);
+            }
+            int version = header.getInt();
+            if (version != BinaryGraphWriter.VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + file);
+            }
+            int graphCount = header.getInt();
+            int nameCount = header.getInt();
+            this.dictionaryOffset = header.getLong();
+            long indexOffset = header.getLong();
+            if (graphCount < 0 || nameCount < 0 || dictionaryOffset < BinaryGraphWriter.HEADER_BYTES
+                    || indexOffset < dictionaryOffset
+                    || indexOffset + (long) BinaryGraphWriter.INDEX_ENTRY_BYTES * graphCount > channel.size()) {
+                throw new IOException("Corrupt binary graph header in " + file);
+            }
+
+            MappedByteBuffer dictionary = map(dictionaryOffset, indexOffset - dictionaryOffset);
+            this.names = new String[nameCount];
+            for (int i = 0; i < nameCount; i++) {
+                int length = dictionary.getInt();
+                if (length < 0 || length > dictionary.remaining()) {
+                    throw new IOException("Corrupt name dictionary in " + file);
+                }
+                byte[] bytes = new byte[length];
+                dictionary.get(bytes);
+                names[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            MappedByteBuffer index = map(indexOffset, (long) BinaryGraphWriter.INDEX_ENTRY_BYTES * graphCount);
+            this.graphIds = new int[graphCount];
+            this.graphOffsets = new long[graphCount];
+            this.positionById = new HashMap<>();
+            for (int i = 0; i < graphCount; i++) {
+                graphIds[i] = index.getInt();
+                graphOffsets[i] = index.getLong();
+                if (graphOffsets[i] < (i > 0 ? graphOffsets[i - 1] : BinaryGraphWriter.HEADER_BYTES)
+                        || graphOffsets[i] > dictionaryOffset) {
+                    throw new IOException("Corrupt graph index in " + file);
+                }
+                positionById.putIfAbsent(graphIds[i], i);
+            }
+        } catch (BufferUnderflowException e) {
+            channel.close();
+            throw new IOException("Truncated binary graph file: " + file, e);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static boolean isBinaryGraphFile(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return Integer.reverseBytes(in.readInt()) == BinaryGraphWriter.MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public int getGraphCount() {
+        return graphIds.length;
+    }
+
+    public int[] getGraphIds() {
+        return graphIds.clone();
+    }
+
+    public Graph readGraph(int graphId) throws IOException {
+        Block block = readBlock(position(graphId));
+        return Graph.fromIndexedEdges(block.nodes, block.from, block.to, block.weights);
+    }
+
+    public InputData.GraphData readGraphData(int graphId) throws IOException {
+        return toGraphData(readBlock(position(graphId)));
+    }
+
+    /**
+     * Graphs in file order (their ids are {@link #getGraphIds()} in the same order), each mapped
+     * and built straight from its index arrays only when reached.
+     */
+    public Iterator<Graph> graphs() {
+        int[] positions = new int[graphIds.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        return graphs(positions);
+    }
+
+    /**
+     * File positions of the graphs in ascending id order; graphs sharing an id stay in file order.
+     */
+    public int[] positionsById() {
+        // id in the high half, position in the low half, so one sort orders by id stably
+        long[] keys = new long[graphIds.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) graphIds[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] positions = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            positions[i] = (int) keys[i];
+        }
+        return positions;
+    }
+
+    /**
+     * Graphs at the given file positions, in that order, built as by {@link #graphs()}.
+     */
+    public Iterator<Graph> graphs(int[] positions) {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < positions.length;
+            }
+
+            @Override
+            public Graph next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    Block block = readBlock(positions[next++]);
+                    return Graph.fromIndexedEdges(block.nodes, block.from, block.to, block.weights);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int position(int graphId) throws IOException {
+        Integer position = positionById.get(graphId);
+        if (position == null) {
+            throw new IOException("Graph " + graphId + " not found");
+        }
+        return position;
+    }
+
+    private Block readBlock(int position) throws IOException {
+        long start = graphOffsets[position];
+        long end = position + 1 < graphOffsets.length ? graphOffsets[position + 1] : dictionaryOffset;
+        IntBuffer ints = map(start, end - start).asIntBuffer();
+        if (ints.remaining() < 3) {
+            throw new IOException("Corrupt graph block at offset " + start);
+        }
+
+        Block block = new Block();
+        block.id = ints.get();
+        int nodeCount = ints.get();
+        int edgeCount = ints.get();
+        if (nodeCount < 0 || edgeCount < 0 || nodeCount + 3L * edgeCount > ints.remaining()) {
+            throw new IOException("Graph " + block.id + " claims " + nodeCount + " nodes and " + edgeCount +
+                    " edges, more than its block holds");
+        }
+
+        int[] nameIds = new int[nodeCount];
+        ints.get(nameIds);
+        block.nodes = new ArrayList<>(nodeCount);
+        for (int nameId : nameIds) {
+            if (nameId < 0 || nameId >= names.length) {
+                throw new IOException("Graph " + block.id + " refers to unknown name " + nameId);
+            }
+            block.nodes.add(names[nameId]);
+        }
+
+        block.from = new int[edgeCount];
+        block.to = new int[edgeCount];
+        block.weights = new int[edgeCount];
+        ints.get(block.from);
+        ints.get(block.to);
+        ints.get(block.weights);
+        for (int e = 0; e < edgeCount; e++) {
+            if (block.from[e] < 0 || block.from[e] >= nodeCount || block.to[e] < 0 || block.to[e] >= nodeCount) {
+                throw new IOException("Graph " + block.id + " has edge " + e + " with an endpoint outside its "
+                        + nodeCount + " nodes");
+            }
+        }
+        return block;
+    }
+
+    private MappedByteBuffer map(long offset, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static InputData.GraphData toGraphData(Block block) {
+        InputData.GraphData graphData = new InputData.GraphData();
+        graphData.setId(block.id);
+        graphData.setNodes(block.nodes);
+        List<InputData.EdgeData> edges = new ArrayList<>(block.from.length);
+        for (int e = 0; e < block.from.length; e++) {
+            InputData.EdgeData edge = new InputData.EdgeData();
+            edge.setFrom(block.nodes.get(block.from[e]));
+            edge.setTo(block.nodes.get(block.to[e]));
+            edge.setWeight(block.weights[e]);
+            edges.add(edge);
+        }
+        graphData.setEdges(edges);
+        return graphData;
+    }
+
+    private static class Block {
+        int id;
+        List<String> nodes;
+        int[] from;
+        int[] to;
+        int[] weights;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.util;
+
+import org.example.model.InputData;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Writes graphs in the binary container read by {@link BinaryGraphReader}. All ints are little-endian.
+ * <pre>
+ * header     magic "MSTG", version, graphCount, nameCount, long dictionaryOffset, long indexOffset
+ * graph[i]   id, nodeCount, edgeCount, nameId[nodeCount], from[edgeCount], to[edgeCount], weight[edgeCount]
+ * dictionary nameCount x (byteLength, UTF-8 bytes), shared by every graph in the file
+ * index      graphCount x (id, long offset of graph block)
+ * </pre>
+ * Edge endpoints are indices into the graph's own node list, so a reader can build the CSR
+ * arrays without looking names up.
+ */
+public class BinaryGraphWriter {
+    static final int MAGIC = 0x4754534D; // "MSTG" read as little-endian bytes
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int INDEX_ENTRY_BYTES = 12;
+
+    public void write(Iterator<InputData.GraphData> graphs, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_BYTES);
+
+            while (graphs.hasNext()) {
+                InputData.GraphData graphData = graphs.next();
+                List<String> nodes = graphData.getNodes();
+                List<InputData.EdgeData> edges = graphData.getEdges();
+
+                Map<String, Integer> localIndex = new HashMap<>();
+                ByteBuffer buffer = allocate(12L + 4L * nodes.size() + 12L * edges.size());
+                buffer.putInt(graphData.getId()).putInt(nodes.size()).putInt(edges.size());
+                for (int i = 0; i < nodes.size(); i++) {
+                    String name = nodes.get(i);
+                    localIndex.put(name, i);
+                    buffer.putInt(dictionary.computeIfAbsent(name, k -> dictionary.size()));
+                }
+                for (InputData.EdgeData edge : edges) {
+                    buffer.putInt(resolve(localIndex, edge.getFrom(), graphData.getId()));
+                }
+                for (InputData.EdgeData edge : edges) {
+                    buffer.putInt(resolve(localIndex, edge.getTo(), graphData.getId()));
+                }
+                for (InputData.EdgeData edge : edges) {
+                    buffer.putInt(edge.getWeight());
+                }
+
+                ids.add(graphData.getId());
+                offsets.add(channel.position());
+                writeFully(channel, buffer);
+            }
+
+            writeTrailer(channel, dictionary.keySet(), ids, offsets);
+        }
+    }
+
+    /**
+     * Writes the dictionary, index and header once every graph block is in place, with the
+     * channel positioned just past the last block.
+     */
+    static void writeTrailer(FileChannel channel, Collection<String> names, List<Integer> ids,
+                             List<Long> offsets) throws IOException {
+        long dictionaryOffset = channel.position();
+        ByteBuffer buffer = allocate(1 << 16);
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < 4 + bytes.length) {
+                writeFully(channel, buffer);
+                buffer.clear();
+                if (buffer.capacity() < 4 + bytes.length) {
+                    buffer = allocate(4L + bytes.length);
+                }
+            }
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        writeFully(channel, buffer);
+
+        long indexOffset = channel.position();
+        ByteBuffer indexBuffer = allocate((long) INDEX_ENTRY_BYTES * ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            indexBuffer.putInt(ids.get(i)).putLong(offsets.get(i));
+        }
+        writeFully(channel, indexBuffer);
+
+        ByteBuffer header = allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(ids.size()).putInt(names.size())
+                .putLong(dictionaryOffset).putLong(indexOffset);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static int resolve(Map<String, Integer> localIndex, String node, int graphId) throws IOException {
+        Integer index = localIndex.get(node);
+        if (index == null) {
+            throw new IOException("Graph " + graphId + " has an edge to unknown node " + node);
+        }
+        return index;
+    }
+
+    static ByteBuffer allocate(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Block too large for the binary graph format: " + size + " bytes");
+        }
+        return ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.util;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder events for the MST batch, shown under "MST" in JMC next to GC and allocation
+ * data. They are enabled by default but cost next to nothing unless a recording is running, e.g.
+ * {@code java -XX:StartFlightRecording=filename=mst.jfr,maxage=1h -jar ...}; fields are only filled
+ * in once {@link Event#shouldCommit()} says the event will be kept.
+ * <p>
+ * The algorithms do not know which graph they are solving, so callers that do (the batch pipeline)
+ * set it per thread with {@link #setCurrentGraphId(int)}; events outside such a scope report -1.
+ * This class depends on nothing else in the project, so every package can emit its events.
+ */
+public final class FlightEvents {
+    private static final ThreadLocal<Integer> CURRENT_GRAPH_ID = ThreadLocal.withInitial(() -> -1);
+
+    private FlightEvents() {
+    }
+
+    public static void setCurrentGraphId(int graphId) {
+        CURRENT_GRAPH_ID.set(graphId);
+    }
+
+    public static void clearCurrentGraphId() {
+        CURRENT_GRAPH_ID.remove();
+    }
+
+    public static int currentGraphId() {
+        return CURRENT_GRAPH_ID.get();
+    }
+
+    @Name("org.example.MSTRun")
+    @Label("MST Run")
+    @Category("MST")
+    @StackTrace(false)
+    public static class MSTRun extends Event {
+        @Label("Graph Id")
+        public int graphId;
+        @Label("Algorithm")
+        public String algorithm;
+        @Label("Vertices")
+        public int vertices;
+        @Label("Edges")
+        public int edges;
+        @Label("Total Cost")
+        public int totalCost;
+        @Label("Graph Build")
+        @Timespan
+        public long graphBuild;
+        @Label("Sort")
+        @Timespan
+        public long sort;
+        @Label("Union-Find")
+        @Timespan
+        public long unionFind;
+        @Label("Heap")
+        @Timespan
+        public long heap;
+        @Label("Assembly")
+        @Timespan
+        public long assembly;
+        @Label("Heap Pushes")
+        public long heapPushes;
+        @Label("Heap Pops")
+        public long heapPops;
+        @Label("Heap Decrease-Keys")
+        public long heapDecreaseKeys;
+        @Label("Finds")
+        public long finds;
+        @Label("Unions")
+        public long unions;
+    }
+
+    @Name("org.example.GraphBuild")
+    @Label("Graph Build")
+    @Category("MST")
+    @StackTrace(false)
+    public static class GraphBuild extends Event {
+        @Label("Graph Id")
+        public int graphId;
+        @Label("Vertices")
+        public int vertices;
+        @Label("Edges")
+        public int edges;
+    }
+
+    /**
+     * Drawing one graph into an image with {@code GraphVisualizer.render}, layout included;
+     * PNG encoding is a separate pipeline stage and not part of it.
+     */
+    @Name("org.example.Render")
+    @Label("Render")
+    @Category("MST")
+    @StackTrace(false)
+    public static class Render extends Event {
+        @Label("Graph Id")
+        public int graphId;
+        @Label("Vertices")
+        public int vertices;
+        @Label("Edges")
+        public int edges;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.InputData;
+import java.io.*;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the {@code graphs} array of an input file one {@link InputData.GraphData} at a time,
+ * so only the graph currently being bound is held in memory. Read errors after construction
+ * surface as {@link UncheckedIOException} from {@link #hasNext()}/{@link #next()}.
+ */
+public class GraphDataReader implements Iterator<InputData.GraphData>, Closeable {
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private InputData.GraphData next;
+
+    GraphDataReader(ObjectMapper mapper, File file) throws IOException {
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createParser(file);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the root of " + file);
+            }
+            if (seekGraphsArray()) {
+                advance();
+            }
+        } catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    private boolean seekGraphsArray() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("graphs".equals(field)) {
+                if (value == JsonToken.VALUE_NULL) {
+                    return false;
+                }
+                if (value != JsonToken.START_ARRAY) {
+                    throw new IOException("Expected \"graphs\" to be an array but found " + value);
+                }
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private void advance() throws IOException {
+        next = parser.nextToken() == JsonToken.START_OBJECT
+                ? mapper.readValue(parser, InputData.GraphData.class)
+                : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public InputData.GraphData next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        InputData.GraphData current = next;
+        try {
+            advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
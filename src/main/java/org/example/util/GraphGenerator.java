@@ -7,7 +7,11 @@ public class GraphGenerator {
     private final Random random;
 
     public GraphGenerator() {
-        this.random = new Random(42);
+        this(42);
+    }
+
+    public GraphGenerator(long seed) {
+        this.random = new Random(seed);
     }
 
     public InputData generateCompleteDataset() {
@@ -60,6 +64,14 @@ public class GraphGenerator {
     }
 
     private InputData.GraphData generateGraph(int id, int nodeCount) {
+        return generateGraph(id, nodeCount, nodeCount * 2, 100);
+    }
+
+    /**
+     * Random spanning tree plus up to {@code additionalEdges} extra random edges
+     * (duplicates are dropped), with weights drawn uniformly from 1..maxWeight.
+     */
+    public InputData.GraphData generateGraph(int id, int nodeCount, int additionalEdges, int maxWeight) {
         InputData.GraphData graph = new InputData.GraphData();
         graph.setId(id);
 
@@ -70,19 +82,19 @@ public class GraphGenerator {
         graph.setNodes(nodes);
 
         List<InputData.EdgeData> edges = new ArrayList<>();
-        Set<String> edgeSet = new HashSet<>();
+        Set<Long> edgeSet = new HashSet<>();
 
         for (int i = 1; i < nodeCount; i++) {
             int parent = random.nextInt(i);
-            addEdge(edges, edgeSet, nodes.get(parent), nodes.get(i));
+            addEdge(edges, edgeSet, nodes, parent, i, maxWeight);
         }
 
-        int additionalEdges = Math.min(nodeCount * 2, (nodeCount * (nodeCount - 1)) / 2 - edges.size());
-        for (int i = 0; i < additionalEdges; i++) {
+        int extraEdges = (int) Math.min(additionalEdges, ((long) nodeCount * (nodeCount - 1)) / 2 - edges.size());
+        for (int i = 0; i < extraEdges; i++) {
             int from = random.nextInt(nodeCount);
             int to = random.nextInt(nodeCount);
             if (from != to) {
-                addEdge(edges, edgeSet, nodes.get(from), nodes.get(to));
+                addEdge(edges, edgeSet, nodes, from, to, maxWeight);
             }
         }
 
@@ -90,15 +102,14 @@ public class GraphGenerator {
         return graph;
     }
 
-    private void addEdge(List<InputData.EdgeData> edges, Set<String> edgeSet,
-                         String from, String to) {
-        String edgeKey = from.compareTo(to) < 0 ? from + "-" + to : to + "-" + from;
-        if (!edgeSet.contains(edgeKey)) {
-            edgeSet.add(edgeKey);
+    private void addEdge(List<InputData.EdgeData> edges, Set<Long> edgeSet, List<String> nodes,
+                         int from, int to, int maxWeight) {
+        long edgeKey = ((long) Math.min(from, to) << 32) | Math.max(from, to);
+        if (edgeSet.add(edgeKey)) {
             InputData.EdgeData edge = new InputData.EdgeData();
-            edge.setFrom(from);
-            edge.setTo(to);
-            edge.setWeight(random.nextInt(100) + 1);
+            edge.setFrom(nodes.get(from));
+            edge.setTo(nodes.get(to));
+            edge.setWeight(random.nextInt(maxWeight) + 1);
             edges.add(edge);
         }
     }
@@ -8,6 +8,9 @@ import java.util.*;
 
 public class JSONHandler {
     private final ObjectMapper mapper;
+    private final NodeDictionary dictionary = new NodeDictionary();
+    // Per-thread map from dictionary id to index in the graph being built; -1 when unused
+    private final ThreadLocal<int[]> localIndex = ThreadLocal.withInitial(() -> new int[0]);
 
     public JSONHandler() {
         this.mapper = new ObjectMapper();
@@ -18,6 +21,57 @@ public class JSONHandler {
         return mapper.readValue(new File(filename), InputData.class);
     }
 
+    /**
+     * Opens {@code filename} for streaming; graphs are parsed lazily as the reader is iterated.
+     */
+    public GraphDataReader openInput(String filename) throws IOException {
+        return new GraphDataReader(mapper, new File(filename));
+    }
+
+    /**
+     * Reports the id and byte offset of each graph in an input file without binding any of them.
+     */
+    public void indexInput(String filename, RecordIndex.Listener listener) throws IOException {
+        RecordIndex.scan(mapper, new File(filename), "graphs", listener);
+    }
+
+    /**
+     * Binds the one input graph at {@code offset}, as reported by {@link #indexInput}.
+     */
+    public InputData.GraphData readInputAt(String filename, long offset) throws IOException {
+        return RecordIndex.read(mapper, new File(filename), offset, InputData.GraphData.class);
+    }
+
+    /**
+     * Graphs of an input file in ascending id order, whatever their order in the file. The file is
+     * indexed first, keeping only offsets, and each graph is bound from its offset when reached,
+     * so memory stays bounded as with {@link #openInput}. Read errors surface as
+     * {@link UncheckedIOException} from {@link Iterator#next()}.
+     */
+    public Iterator<InputData.GraphData> openInputById(String filename) throws IOException {
+        long[] offsets = RecordIndex.offsetsById(mapper, new File(filename), "graphs");
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < offsets.length;
+            }
+
+            @Override
+            public InputData.GraphData next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return readInputAt(filename, offsets[next++]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
     public void writeInput(String filename, InputData input) throws IOException {
         mapper.writeValue(new File(filename), input);
     }
@@ -26,11 +80,126 @@ public class JSONHandler {
         mapper.writeValue(new File(filename), output);
     }
 
+    /**
+     * Reads an output file in either {@link ResultWriter.Format} (chosen by extension, as when
+     * writing) and indexes its results by graph id.
+     */
+    public Map<Integer, OutputData.GraphResult> readResults(String filename) throws IOException {
+        Map<Integer, OutputData.GraphResult> results = new HashMap<>();
+        if (ResultWriter.formatFor(filename) == ResultWriter.Format.NDJSON) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (!line.isBlank()) {
+                        OutputData.GraphResult result = mapper.readValue(line, OutputData.GraphResult.class);
+                        results.put(result.getId(), result);
+                    }
+                }
+            }
+        } else {
+            OutputData output = mapper.readValue(new File(filename), OutputData.class);
+            if (output.getResults() != null) {
+                for (OutputData.GraphResult result : output.getResults()) {
+                    results.put(result.getId(), result);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Reports the id and byte offset of each result in an output file of either
+     * {@link ResultWriter.Format} without binding any of them.
+     */
+    public void indexResults(String filename, RecordIndex.Listener listener) throws IOException {
+        boolean ndjson = ResultWriter.formatFor(filename) == ResultWriter.Format.NDJSON;
+        RecordIndex.scan(mapper, new File(filename), ndjson ? null : "results", listener);
+    }
+
+    /**
+     * Binds the one result at {@code offset}, as reported by {@link #indexResults}.
+     */
+    public OutputData.GraphResult readResultAt(String filename, long offset) throws IOException {
+        return RecordIndex.read(mapper, new File(filename), offset, OutputData.GraphResult.class);
+    }
+
+    /**
+     * Opens a streaming result writer; results are appended and flushed one at a time.
+     */
+    public ResultWriter openOutput(String filename, ResultWriter.Format format) throws IOException {
+        return new ResultWriter(mapper, new File(filename), format);
+    }
+
+    /**
+     * Dictionary shared by every graph this handler builds.
+     */
+    public NodeDictionary getNodeDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Builds the graph with its node names interned in the shared {@link NodeDictionary}: each
+     * name is hashed once against the dictionary and edges are resolved to int indices right away,
+     * so equal names across graphs share one {@code String} and the graph never hashes names itself.
+     */
     public Graph createGraph(InputData.GraphData graphData) {
-        List<Edge> edges = new ArrayList<>();
-        for (InputData.EdgeData edgeData : graphData.getEdges()) {
-            edges.add(new Edge(edgeData.getFrom(), edgeData.getTo(), edgeData.getWeight()));
+        FlightEvents.GraphBuild event = new FlightEvents.GraphBuild();
+        event.begin();
+
+        List<String> names = graphData.getNodes();
+        int n = names.size();
+        int[] ids = new int[n];
+        List<String> nodes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ids[i] = dictionary.intern(names.get(i));
+            nodes.add(dictionary.name(ids[i]));
+        }
+
+        int[] local = localIndex.get();
+        if (local.length < dictionary.size()) {
+            int oldLength = local.length;
+            local = Arrays.copyOf(local, Math.max(dictionary.size(), oldLength * 2));
+            Arrays.fill(local, oldLength, local.length, -1);
+            localIndex.set(local);
+        }
+        for (int i = 0; i < n; i++) {
+            local[ids[i]] = i;
+        }
+
+        List<InputData.EdgeData> edgeData = graphData.getEdges();
+        int m = edgeData.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weights = new int[m];
+        try {
+            for (int e = 0; e < m; e++) {
+                InputData.EdgeData edge = edgeData.get(e);
+                from[e] = resolve(local, edge.getFrom(), graphData.getId());
+                to[e] = resolve(local, edge.getTo(), graphData.getId());
+                weights[e] = edge.getWeight();
+            }
+        } finally {
+            for (int id : ids) {
+                local[id] = -1;
+            }
+        }
+        Graph graph = Graph.fromIndexedEdges(nodes, from, to, weights);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.graphId = graphData.getId();
+            event.vertices = graph.getNodeCount();
+            event.edges = graph.getEdgeCount();
+            event.commit();
+        }
+        return graph;
+    }
+
+    private int resolve(int[] local, String node, int graphId) {
+        int id = dictionary.lookup(node);
+        int index = id >= 0 && id < local.length ? local[id] : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("Graph " + graphId + " has an edge to unknown node " + node);
         }
-        return new Graph(graphData.getNodes(), edges);
+        return index;
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Locates the records of a JSON file without binding them: each object of a root-level array
+ * (or, for NDJSON, each root object) is skipped token by token, keeping only its {@code id} and
+ * byte offset, so a single record can later be read on its own with {@link #read}.
+ */
+public final class RecordIndex {
+
+    /**
+     * Receives each record once it has been scanned completely, in file order.
+     */
+    public interface Listener {
+        void record(int id, long offset);
+    }
+
+    private RecordIndex() {
+    }
+
+    /**
+     * Scans the objects of the root-level array {@code arrayField}, or the root objects themselves
+     * when {@code arrayField} is {@code null}. A record cut short by the end of the file is not
+     * reported; the parse error surfaces once every earlier record has been.
+     */
+    static void scan(ObjectMapper mapper, File file, String arrayField, Listener listener) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            if (arrayField == null) {
+                for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new IOException("Expected a JSON object per record in " + file + " but found " + token);
+                    }
+                    scanRecord(parser, file, listener);
+                }
+                return;
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the root of " + file);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!arrayField.equals(field)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        scanRecord(parser, file, listener);
+                    }
+                    return;
+                } else if (value != JsonToken.VALUE_NULL) {
+                    throw new IOException("Expected \"" + arrayField + "\" to be an array but found " + value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Offsets of the records {@link #scan} finds, in ascending id order; records sharing an id
+     * stay in file order.
+     */
+    static long[] offsetsById(ObjectMapper mapper, File file, String arrayField) throws IOException {
+        class Collector implements Listener {
+            // id in the high half, scan position in the low half, so one sort orders by id stably
+            long[] keys = new long[16];
+            long[] offsets = new long[16];
+            int size;
+
+            @Override
+            public void record(int id, long offset) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    offsets = Arrays.copyOf(offsets, size * 2);
+                }
+                keys[size] = (long) id << 32 | size;
+                offsets[size++] = offset;
+            }
+        }
+        Collector collector = new Collector();
+        scan(mapper, file, arrayField, collector);
+        long[] keys = Arrays.copyOf(collector.keys, collector.size);
+        Arrays.sort(keys);
+        long[] sorted = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = collector.offsets[(int) keys[i]];
+        }
+        return sorted;
+    }
+
+    private static void scanRecord(JsonParser parser, File file, Listener listener) throws IOException {
+        long offset = parser.getTokenLocation().getByteOffset();
+        if (offset < 0) {
+            throw new IOException("No byte offsets available for " + file);
+        }
+        boolean hasId = false;
+        int id = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.VALUE_NUMBER_INT && "id".equals(field)) {
+                id = parser.getIntValue();
+                hasId = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!hasId) {
+            throw new IOException("Record at byte " + offset + " of " + file + " has no id");
+        }
+        listener.record(id, offset);
+    }
+
+    /**
+     * Binds the single record starting at {@code offset}, as reported by {@link #scan}.
+     */
+    static <T> T read(ObjectMapper mapper, File file, long offset, Class<T> type) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            in.skipNBytes(offset);
+            try (JsonParser parser = mapper.getFactory().createParser(in)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("No record at byte " + offset + " of " + file);
+                }
+                return mapper.readValue(parser, type);
+            }
+        }
+    }
+}
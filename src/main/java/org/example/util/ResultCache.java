@@ -0,0 +1,202 @@
+package org.example.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Graph;
+import org.example.model.InputData;
+import org.example.model.OutputData;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of solved graphs, addressed by a SHA-256 of the graph's content: the node names in
+ * input order plus the sorted multiset of (endpoint, endpoint, weight) edges. Renaming the graph id
+ * or reordering edges in the input therefore still hits; reordering nodes does not, because the
+ * cached component ids are positional. Each entry is a {@code <key>.json} with
+ * the algorithm results and, optionally, a {@code <key>.png} with the rendered image. The total size
+ * is bounded; the least recently used entries are evicted first, and recency survives restarts
+ * through the files' modification times.
+ */
+public class ResultCache {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    // Bump when the cached results change meaning, so stale entries stop matching
+    private static final int KEY_VERSION = 4;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ObjectMapper mapper = new ObjectMapper();
+    // Access-ordered: iteration starts at the least recently used key
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ResultCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.filter(p -> p.getFileName().toString().endsWith(".json")).toList();
+        }
+        Map<Path, FileTime> modified = new HashMap<>();
+        for (Path p : existing) {
+            modified.put(p, Files.getLastModifiedTime(p));
+        }
+        List<Path> byAge = new ArrayList<>(existing);
+        byAge.sort(Comparator.comparing(modified::get));
+        for (Path p : byAge) {
+            String key = p.getFileName().toString().replace(".json", "");
+            long size = Files.size(p) + sizeIfExists(imagePath(key));
+            entries.put(key, size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    /**
+     * Content hash of a graph. {@code mode} separates results produced by different solver setups.
+     */
+    public static String key(InputData.GraphData graphData, String mode) {
+        List<String> edges = new ArrayList<>(graphData.getEdges().size());
+        for (InputData.EdgeData e : graphData.getEdges()) {
+            edges.add(edgeKey(e.getFrom(), e.getTo(), e.getWeight()));
+        }
+        return key(graphData.getNodes(), edges, mode);
+    }
+
+    /**
+     * Same key as {@link #key(InputData.GraphData, String)} for the same graph, for graphs that
+     * were built without going through {@link InputData}.
+     */
+    public static String key(Graph graph, String mode) {
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        int[] weights = graph.getEdgeWeights();
+        List<String> edges = new ArrayList<>(sources.length);
+        for (int e = 0; e < sources.length; e++) {
+            edges.add(edgeKey(graph.getNodeName(sources[e]), graph.getNodeName(targets[e]), weights[e]));
+        }
+        return key(graph.getNodes(), edges, mode);
+    }
+
+    private static String edgeKey(String a, String b, int weight) {
+        return a.compareTo(b) <= 0 ? a + '\u0000' + b + '\u0000' + weight : b + '\u0000' + a + '\u0000' + weight;
+    }
+
+    private static String key(List<String> nodes, List<String> edges, String mode) {
+        Collections.sort(edges);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((byte) KEY_VERSION);
+            digest.update(mode.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 1);
+            for (String node : nodes) {
+                digest.update(node.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update((byte) 1);
+            for (String edge : edges) {
+                digest.update(edge.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 1);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cached results for {@code key} (only the prim/kruskal/mst fields are set), or {@code null}.
+     * With {@code requireImage}, entries stored without a rendered image count as misses.
+     */
+    public synchronized OutputData.GraphResult get(String key, boolean requireImage) throws IOException {
+        // get() rather than containsKey() so the hit counts as an access for eviction order
+        if (entries.get(key) == null || (requireImage && !Files.exists(imagePath(key)))) {
+            return null;
+        }
+        try {
+            OutputData.GraphResult result = mapper.readValue(jsonPath(key).toFile(), OutputData.GraphResult.class);
+            FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+            Files.setLastModifiedTime(jsonPath(key), now);
+            return result;
+        } catch (IOException e) {
+            remove(key);
+            return null;
+        }
+    }
+
+    public synchronized void copyImage(String key, Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Files.copy(imagePath(key), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Stores the algorithm results of {@code result} and, if given and present, a copy of {@code image}.
+     */
+    public synchronized void put(String key, OutputData.GraphResult result, Path image) throws IOException {
+        OutputData.GraphResult entry = new OutputData.GraphResult();
+        entry.setPrim(result.getPrim());
+        entry.setKruskal(result.getKruskal());
+        entry.setMst(result.getMst());
+
+        remove(key);
+        Path tmp = directory.resolve(key + ".json.tmp");
+        mapper.writeValue(tmp.toFile(), entry);
+        Files.move(tmp, jsonPath(key), StandardCopyOption.REPLACE_EXISTING);
+        if (image != null && Files.exists(image)) {
+            Files.copy(image, imagePath(key), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        long size = Files.size(jsonPath(key)) + sizeIfExists(imagePath(key));
+        entries.put(key, size);
+        totalBytes += size;
+        evict();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            Files.deleteIfExists(jsonPath(eldest.getKey()));
+            Files.deleteIfExists(imagePath(eldest.getKey()));
+        }
+    }
+
+    private void remove(String key) throws IOException {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        Files.deleteIfExists(jsonPath(key));
+        Files.deleteIfExists(imagePath(key));
+    }
+
+    private Path jsonPath(String key) {
+        return directory.resolve(key + ".json");
+    }
+
+    private Path imagePath(String key) {
+        return directory.resolve(key + ".png");
+    }
+
+    private static long sizeIfExists(Path path) throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.model.OutputData;
+import java.io.*;
+
+/**
+ * Appends {@link OutputData.GraphResult}s to a file as they are produced and flushes after each one.
+ * {@link Format#JSON} keeps the {@code {"results":[...]}} document of {@link JSONHandler#writeOutput};
+ * the document is only well-formed after {@link #close()}. {@link Format#NDJSON} writes one compact
+ * result per line, so every flushed line is complete and the file can be tailed.
+ */
+public class ResultWriter implements BatchPipeline.ResultSink, Closeable {
+
+    public enum Format {
+        JSON,
+        NDJSON
+    }
+
+    private final Format format;
+    private final OutputStream out;
+    private final JsonGenerator generator;
+    private final ObjectWriter lineWriter;
+    private int count;
+
+    ResultWriter(ObjectMapper mapper, File file, Format format) throws IOException {
+        this.format = format;
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        this.out = new BufferedOutputStream(new FileOutputStream(file));
+
+        if (format == Format.JSON) {
+            this.generator = mapper.getFactory().createGenerator(out);
+            this.generator.useDefaultPrettyPrinter();
+            this.generator.writeStartObject();
+            this.generator.writeFieldName("results");
+            this.generator.writeStartArray();
+            this.generator.flush();
+            this.lineWriter = null;
+        } else {
+            this.generator = null;
+            this.lineWriter = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void accept(OutputData.GraphResult result) throws IOException {
+        if (format == Format.JSON) {
+            generator.writeObject(result);
+            generator.flush();
+        } else {
+            out.write(lineWriter.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        }
+        count++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (format == Format.JSON) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.close();
+        }
+        out.close();
+    }
+
+    public static Format formatFor(String filename) {
+        return filename.endsWith(".ndjson") || filename.endsWith(".jsonl") ? Format.NDJSON : Format.JSON;
+    }
+}
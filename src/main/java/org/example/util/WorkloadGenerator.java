@@ -0,0 +1,516 @@
+package org.example.util;
+
+import org.example.model.Graph;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic stress-test graphs of millions of nodes and tens of millions of edges, generated in parallel.
+ * <p>
+ * Nodes are cut into fixed-size chunks that depend only on the node count, and each chunk draws
+ * from its own {@link SplittableRandom} seeded from the generator seed and graph id, so the output
+ * is identical for any pool size. Every graph is generated twice: a counting pass fixes where each
+ * chunk's edges go, then a writing pass streams them to their final place in the binary format
+ * ({@link BinaryGraphReader}) or in memory. Edges are never deduplicated; parallel edges are
+ * harmless to the MST engines. Nodes are named {@code N0, N1, ...}.
+ */
+public class WorkloadGenerator {
+    public enum Topology {
+        /** Road-like 4-neighbour lattice on a square grid. */
+        GRID,
+        /** Random points in the unit square, joined when closer than the radius giving the average degree. */
+        GEOMETRIC,
+        /** G(n, p) with p set by the average degree. */
+        ERDOS_RENYI,
+        /** Barabási–Albert preferential attachment, average degree / 2 edges per new node. */
+        SCALE_FREE,
+        /** Every pair of nodes. */
+        COMPLETE
+    }
+
+    public enum WeightDistribution {
+        /** Uniform in 1..maxWeight. */
+        UNIFORM,
+        /** Exponential with mean maxWeight / 8, clamped to 1..maxWeight: many cheap edges, a few expensive. */
+        EXPONENTIAL,
+        /** Proportional to the distance between the endpoints (GRID and GEOMETRIC only). */
+        EUCLIDEAN
+    }
+
+    /**
+     * One graph to generate. {@code averageDegree} is ignored by GRID and COMPLETE.
+     */
+    public static class Spec {
+        private final int id;
+        private final Topology topology;
+        private final int nodeCount;
+        private final double averageDegree;
+        private final WeightDistribution weights;
+        private final int maxWeight;
+
+        public Spec(int id, Topology topology, int nodeCount, double averageDegree,
+                    WeightDistribution weights, int maxWeight) {
+            if (nodeCount < 1) {
+                throw new IllegalArgumentException("Node count must be positive: " + nodeCount);
+            }
+            if (averageDegree < 0) {
+                throw new IllegalArgumentException("Average degree must not be negative: " + averageDegree);
+            }
+            if (maxWeight < 1) {
+                throw new IllegalArgumentException("Max weight must be positive: " + maxWeight);
+            }
+            if (weights == WeightDistribution.EUCLIDEAN
+                    && topology != Topology.GRID && topology != Topology.GEOMETRIC) {
+                throw new IllegalArgumentException("Euclidean weights need a GRID or GEOMETRIC topology");
+            }
+            this.id = id;
+            this.topology = Objects.requireNonNull(topology, "topology");
+            this.nodeCount = nodeCount;
+            this.averageDegree = averageDegree;
+            this.weights = Objects.requireNonNull(weights, "weights");
+            this.maxWeight = maxWeight;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Topology getTopology() {
+            return topology;
+        }
+
+        public int getNodeCount() {
+            return nodeCount;
+        }
+
+        public double getAverageDegree() {
+            return averageDegree;
+        }
+
+        public WeightDistribution getWeights() {
+            return weights;
+        }
+
+        public int getMaxWeight() {
+            return maxWeight;
+        }
+    }
+
+    private static final int BUFFER_EDGES = 1 << 14;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public WorkloadGenerator(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+
+    public WorkloadGenerator(long seed, ForkJoinPool pool) {
+        this.seed = seed;
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * Generates {@code specs} straight into a binary graph file, one block per spec, holding at
+     * most a small buffer of edges per worker in memory.
+     */
+    public void write(List<Spec> specs, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        int maxNodes = 0;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = BinaryGraphWriter.HEADER_BYTES;
+            for (Spec spec : specs) {
+                Run run = new Run(spec);
+                int n = spec.getNodeCount();
+                int m = run.countEdges();
+                maxNodes = Math.max(maxNodes, n);
+
+                ids.add(spec.getId());
+                offsets.add(position);
+
+                ByteBuffer buffer = BinaryGraphWriter.allocate(4L * BUFFER_EDGES);
+                buffer.putInt(spec.getId()).putInt(n).putInt(m);
+                channel.position(position);
+                for (int v = 0; v < n; v++) {
+                    if (!buffer.hasRemaining()) {
+                        BinaryGraphWriter.writeFully(channel, buffer);
+                        buffer.clear();
+                    }
+                    // Names are shared through the dictionary: node v is always name v
+                    buffer.putInt(v);
+                }
+                BinaryGraphWriter.writeFully(channel, buffer);
+
+                long fromBase = channel.position();
+                long toBase = fromBase + 4L * m;
+                long weightBase = toBase + 4L * m;
+                run.emitEdges((start, from, to, weights, count) -> {
+                    writeInts(channel, fromBase + 4L * start, from, count);
+                    writeInts(channel, toBase + 4L * start, to, count);
+                    writeInts(channel, weightBase + 4L * start, weights, count);
+                });
+                position = weightBase + 4L * m;
+            }
+
+            channel.position(position);
+            int nameCount = maxNodes;
+            BinaryGraphWriter.writeTrailer(channel, new AbstractList<>() {
+                @Override
+                public String get(int index) {
+                    return "N" + index;
+                }
+
+                @Override
+                public int size() {
+                    return nameCount;
+                }
+            }, ids, offsets);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Generates one graph in memory; handy for tests and benchmarks of moderate size.
+     */
+    public Graph generate(Spec spec) {
+        Run run = new Run(spec);
+        int m = run.countEdges();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weights = new int[m];
+        run.emitEdges((start, f, t, w, count) -> {
+            System.arraycopy(f, 0, from, start, count);
+            System.arraycopy(t, 0, to, start, count);
+            System.arraycopy(w, 0, weights, start, count);
+        });
+
+        List<String> nodes = new ArrayList<>(spec.getNodeCount());
+        for (int v = 0; v < spec.getNodeCount(); v++) {
+            nodes.add("N" + v);
+        }
+        return Graph.fromIndexedEdges(nodes, from, to, weights);
+    }
+
+    private static void writeInts(FileChannel channel, long position, int[] values, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * count).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(values, 0, count);
+        try {
+            long at = position;
+            while (buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // SplitMix64 finalizer, the same mixing SplittableRandom applies to its own state
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @FunctionalInterface
+    private interface BlockSink {
+        /** Receives edges {@code start .. start + count - 1} of the graph; called concurrently. */
+        void accept(int start, int[] from, int[] to, int[] weights, int count);
+    }
+
+    /**
+     * Generation state for one spec: chunk layout, chunk seeds and, for spatial topologies, positions.
+     */
+    private class Run {
+        private final Spec spec;
+        private final int n;
+        private final int chunkNodes;
+        private final int chunkCount;
+        private final long[] chunkSeeds;
+        private final long graphSeed;
+        private long[] chunkStarts;
+
+        // Spatial topologies only
+        private double[] x;
+        private double[] y;
+        private double radius;
+        private int cellsPerSide;
+        // Nodes are numbered in cell order, so cell c holds nodes cellStart[c] .. cellStart[c + 1] - 1
+        private int[] cellStart;
+
+        Run(Spec spec) {
+            this.spec = spec;
+            this.n = spec.getNodeCount();
+            this.chunkNodes = Math.max(64, Math.min(1 << 16, n / 256));
+            this.chunkCount = (n + chunkNodes - 1) / chunkNodes;
+            this.graphSeed = mix64(seed + GOLDEN_GAMMA * (spec.getId() + 1L));
+            this.chunkSeeds = new SplittableRandom(graphSeed).longs(chunkCount).toArray();
+
+            if (spec.getTopology() == Topology.GEOMETRIC
+                    || (spec.getTopology() == Topology.GRID && spec.getWeights() == WeightDistribution.EUCLIDEAN)) {
+                placeNodes();
+            }
+        }
+
+        int countEdges() {
+            long[] counts = new long[chunkCount];
+            pool.submit(() -> IntStream.range(0, chunkCount).parallel().forEach(c -> {
+                long[] count = new long[1];
+                generateChunk(c, (from, to) -> count[0]++);
+                counts[c] = count[0];
+            })).join();
+
+            chunkStarts = new long[chunkCount + 1];
+            for (int c = 0; c < chunkCount; c++) {
+                chunkStarts[c + 1] = chunkStarts[c] + counts[c];
+            }
+            long total = chunkStarts[chunkCount];
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Graph " + spec.getId() + " would have " + total + " edges");
+            }
+            return (int) total;
+        }
+
+        void emitEdges(BlockSink sink) {
+            pool.submit(() -> IntStream.range(0, chunkCount).parallel().forEach(c -> {
+                SplittableRandom weightRandom = new SplittableRandom(mix64(chunkSeeds[c] ^ GOLDEN_GAMMA));
+                int[] from = new int[BUFFER_EDGES];
+                int[] to = new int[BUFFER_EDGES];
+                int[] weights = new int[BUFFER_EDGES];
+                int[] filled = new int[1];
+                int[] written = new int[1];
+                generateChunk(c, (u, v) -> {
+                    from[filled[0]] = u;
+                    to[filled[0]] = v;
+                    weights[filled[0]] = weight(u, v, weightRandom);
+                    if (++filled[0] == BUFFER_EDGES) {
+                        sink.accept((int) chunkStarts[c] + written[0], from, to, weights, filled[0]);
+                        written[0] += filled[0];
+                        filled[0] = 0;
+                    }
+                });
+                if (filled[0] > 0) {
+                    sink.accept((int) chunkStarts[c] + written[0], from, to, weights, filled[0]);
+                }
+            })).join();
+        }
+
+        // Must produce the same edges in the same order on every call for a given chunk
+        private void generateChunk(int chunk, EdgeConsumer out) {
+            int first = chunk * chunkNodes;
+            int last = Math.min(n, first + chunkNodes);
+            SplittableRandom random = new SplittableRandom(chunkSeeds[chunk]);
+            switch (spec.getTopology()) {
+                case GRID -> grid(first, last, out);
+                case GEOMETRIC -> geometric(first, last, out);
+                case ERDOS_RENYI -> erdosRenyi(first, last, random, out);
+                case SCALE_FREE -> scaleFree(first, last, out);
+                case COMPLETE -> complete(first, last, out);
+            }
+        }
+
+        private void grid(int first, int last, EdgeConsumer out) {
+            int cols = (int) Math.ceil(Math.sqrt(n));
+            for (int v = first; v < last; v++) {
+                if (v % cols + 1 < cols && v + 1 < n) {
+                    out.edge(v, v + 1);
+                }
+                if ((long) v + cols < n) {
+                    out.edge(v, v + cols);
+                }
+            }
+        }
+
+        private void geometric(int first, int last, EdgeConsumer out) {
+            double radiusSquared = radius * radius;
+            for (int v = first; v < last; v++) {
+                int cx = cell(x[v]);
+                int cy = cell(y[v]);
+                for (int dy = -1; dy <= 1; dy++) {
+                    int ny = cy + dy;
+                    if (ny < 0 || ny >= cellsPerSide) {
+                        continue;
+                    }
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int nx = cx + dx;
+                        if (nx < 0 || nx >= cellsPerSide) {
+                            continue;
+                        }
+                        int cellIndex = ny * cellsPerSide + nx;
+                        for (int u = Math.max(cellStart[cellIndex], v + 1); u < cellStart[cellIndex + 1]; u++) {
+                            double ddx = x[u] - x[v];
+                            double ddy = y[u] - y[v];
+                            if (ddx * ddx + ddy * ddy <= radiusSquared) {
+                                out.edge(v, u);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Batagelj–Brandes: skip straight to the next present pair (v, w), w < v, in O(1) per edge
+        private void erdosRenyi(int first, int last, SplittableRandom random, EdgeConsumer out) {
+            double p = n > 1 ? spec.getAverageDegree() / (n - 1) : 0;
+            if (p <= 0) {
+                return;
+            }
+            if (p >= 1) {
+                complete(first, last, out);
+                return;
+            }
+            double logQ = Math.log(1 - p);
+            int v = Math.max(first, 1);
+            long w = -1;
+            while (v < last) {
+                w += 1 + (long) (Math.log(1 - random.nextDouble()) / logQ);
+                while (w >= v && v < last) {
+                    w -= v;
+                    v++;
+                }
+                if (v < last) {
+                    out.edge(v, (int) w);
+                }
+            }
+        }
+
+        /*
+         * Barabási–Albert without shared state (Sanders & Schulz): edge e joins node source(e) to an
+         * endpoint picked uniformly from all earlier edges' endpoints. Endpoint slot 2e' is
+         * source(e'), known directly; slot 2e' + 1 is target(e'), recomputed the same way from a hash
+         * of e', so any chunk can be generated without the ones before it.
+         */
+        private void scaleFree(int first, int last, EdgeConsumer out) {
+            int k = edgesPerNode();
+            for (int v = Math.max(first, 1); v < last; v++) {
+                for (int i = 0; i < k; i++) {
+                    long e = (long) (v - 1) * k + i;
+                    out.edge(v, scaleFreeTarget(e, k));
+                }
+            }
+        }
+
+        private int scaleFreeTarget(long e, int k) {
+            if (e == 0) {
+                return 0;
+            }
+            long slot = Long.remainderUnsigned(mix64(graphSeed ^ (e * GOLDEN_GAMMA)), 2 * e);
+            int target = (slot & 1) == 0 ? scaleFreeSource(slot >>> 1, k) : scaleFreeTarget(slot >>> 1, k);
+            int source = scaleFreeSource(e, k);
+            // A node's earlier edges are candidates too; redirect self-loops to the previous node
+            return target == source ? source - 1 : target;
+        }
+
+        private int scaleFreeSource(long e, int k) {
+            return (int) (1 + e / k);
+        }
+
+        private int edgesPerNode() {
+            return Math.max(1, (int) Math.round(spec.getAverageDegree() / 2));
+        }
+
+        private void complete(int first, int last, EdgeConsumer out) {
+            for (int v = first; v < last; v++) {
+                for (int w = 0; w < v; w++) {
+                    out.edge(v, w);
+                }
+            }
+        }
+
+        private int weight(int u, int v, SplittableRandom random) {
+            int max = spec.getMaxWeight();
+            switch (spec.getWeights()) {
+                case EXPONENTIAL -> {
+                    double mean = Math.max(1.0, max / 8.0);
+                    long w = 1 + (long) (-mean * Math.log(1 - random.nextDouble()));
+                    return (int) Math.min(w, max);
+                }
+                case EUCLIDEAN -> {
+                    double dx = x[u] - x[v];
+                    double dy = y[u] - y[v];
+                    // GEOMETRIC edges are at most one radius long; jittered GRID edges at most about two
+                    double scale = spec.getTopology() == Topology.GEOMETRIC ? radius : 2.0;
+                    long w = 1 + Math.round(Math.sqrt(dx * dx + dy * dy) / scale * (max - 1));
+                    return (int) Math.min(w, max);
+                }
+                default -> {
+                    return 1 + random.nextInt(max);
+                }
+            }
+        }
+
+        private void placeNodes() {
+            x = new double[n];
+            y = new double[n];
+            long[] positionSeeds = new SplittableRandom(mix64(graphSeed + GOLDEN_GAMMA)).longs(chunkCount).toArray();
+            boolean grid = spec.getTopology() == Topology.GRID;
+            int cols = (int) Math.ceil(Math.sqrt(n));
+            pool.submit(() -> IntStream.range(0, chunkCount).parallel().forEach(c -> {
+                SplittableRandom random = new SplittableRandom(positionSeeds[c]);
+                for (int v = c * chunkNodes; v < Math.min(n, (c + 1) * chunkNodes); v++) {
+                    if (grid) {
+                        // Jittered lattice: intersections are roughly, not exactly, one unit apart
+                        x[v] = v % cols + 0.6 * (random.nextDouble() - 0.5);
+                        y[v] = v / cols + 0.6 * (random.nextDouble() - 0.5);
+                    } else {
+                        x[v] = random.nextDouble();
+                        y[v] = random.nextDouble();
+                    }
+                }
+            })).join();
+            if (grid) {
+                return;
+            }
+
+            radius = Math.min(Math.sqrt(2), Math.sqrt(spec.getAverageDegree() / (Math.PI * Math.max(1, n - 1))));
+            cellsPerSide = (int) Math.max(1, Math.min(Math.floor(1 / Math.max(radius, 1e-9)), Math.sqrt(n) * 2));
+            int cells = cellsPerSide * cellsPerSide;
+            cellStart = new int[cells + 1];
+            int[] cellOf = new int[n];
+            for (int v = 0; v < n; v++) {
+                cellOf[v] = cell(y[v]) * cellsPerSide + cell(x[v]);
+                cellStart[cellOf[v] + 1]++;
+            }
+            for (int c = 0; c < cells; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            // Renumber the nodes in cell order: neighbours get nearby ids, which keeps the scan cache-friendly
+            double[] sortedX = new double[n];
+            double[] sortedY = new double[n];
+            int[] cursor = Arrays.copyOf(cellStart, cells);
+            for (int v = 0; v < n; v++) {
+                int slot = cursor[cellOf[v]]++;
+                sortedX[slot] = x[v];
+                sortedY[slot] = y[v];
+            }
+            x = sortedX;
+            y = sortedY;
+        }
+
+        private int cell(double coordinate) {
+            return Math.min(cellsPerSide - 1, (int) (coordinate * cellsPerSide));
+        }
+    }
+
+    @FunctionalInterface
+    private interface EdgeConsumer {
+        void edge(int from, int to);
+    }
+}
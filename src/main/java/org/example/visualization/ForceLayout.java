@@ -0,0 +1,335 @@
+package org.example.visualization;
+
+import org.example.model.Graph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Fruchterman–Reingold layout shared by the CLI renderer and the GUI. Repulsion is approximated
+ * with a Barnes–Hut quadtree rebuilt every iteration: a cell whose side is below {@code theta}
+ * times its distance to a node acts as one body at its centre of mass, so an iteration costs
+ * O(V log V + E) instead of O(V²). {@code theta = 0} degenerates to the exact all-pairs sum.
+ * <p>
+ * The step size cools linearly from a tenth of the frame width (a hundredth for
+ * {@link #warmStart warm starts}), and the run stops early once the mean node displacement of an
+ * iteration drops below {@code tolerance} pixels.
+ */
+public class ForceLayout {
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+    public static final double DEFAULT_THETA = 0.8;
+    public static final double DEFAULT_TOLERANCE = 0.5;
+    // Graphs up to this size are placed on a circle rather than relaxed
+    public static final int CIRCLE_MAX_NODES = 10;
+
+    private static final int INITIAL_MARGIN = 100;
+    private static final int MARGIN = 50;
+    private static final double MIN_DISTANCE = 0.01;
+    private static final double GRAVITY_FILL = 0.9;
+    private static final double COLD_STEP = 0.1;
+    private static final double WARM_STEP = 0.01;
+    // Points closer than root side / 2^MAX_DEPTH share a leaf instead of splitting forever
+    private static final int MAX_DEPTH = 32;
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+
+    private final double width;
+    private final double height;
+    private final int maxIterations;
+    private final double theta;
+    private final double tolerance;
+
+    private int[] child = new int[0];
+    private int[] body = new int[0];
+    private int[] count = new int[0];
+    private double[] centerX = new double[0];
+    private double[] centerY = new double[0];
+    private double[] half = new double[0];
+    private double[] massX = new double[0];
+    private double[] massY = new double[0];
+    private int cells;
+    private int[] stack = new int[64];
+
+    public ForceLayout(double width, double height) {
+        this(width, height, DEFAULT_MAX_ITERATIONS, DEFAULT_THETA, DEFAULT_TOLERANCE);
+    }
+
+    public ForceLayout(double width, double height, int maxIterations, double theta, double tolerance) {
+        if (width <= 2 * INITIAL_MARGIN || height <= 2 * INITIAL_MARGIN) {
+            throw new IllegalArgumentException("Frame too small: " + width + "x" + height);
+        }
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("Iterations must be non-negative: " + maxIterations);
+        }
+        if (theta < 0) {
+            throw new IllegalArgumentException("Theta must be non-negative: " + theta);
+        }
+        this.width = width;
+        this.height = height;
+        this.maxIterations = maxIterations;
+        this.theta = theta;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Places up to ten nodes on a circle (first node on top); larger graphs start from seeded
+     * random positions and are relaxed.
+     */
+    public NodeLayout layout(Graph graph) {
+        int n = graph.getNodeCount();
+        double[] x = new double[n];
+        double[] y = new double[n];
+
+        if (n <= CIRCLE_MAX_NODES) {
+            double radius = Math.min(width, height) / 3.0;
+            for (int i = 0; i < n; i++) {
+                double angle = 2 * Math.PI * i / n - Math.PI / 2;
+                x[i] = width / 2.0 + radius * Math.cos(angle);
+                y[i] = height / 2.0 + radius * Math.sin(angle);
+            }
+            return new NodeLayout(x, y, 0);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            x[i] = INITIAL_MARGIN + random.nextDouble() * (width - 2 * INITIAL_MARGIN);
+            y[i] = INITIAL_MARGIN + random.nextDouble() * (height - 2 * INITIAL_MARGIN);
+        }
+        return relax(graph, x, y);
+    }
+
+    /**
+     * Relaxes the given starting positions in place and wraps them in a layout.
+     */
+    public NodeLayout relax(Graph graph, double[] x, double[] y) {
+        return relax(graph, x, y, COLD_STEP * width);
+    }
+
+    /**
+     * Like {@link #relax}, but for positions that are already close to a good layout, e.g. the
+     * previous layout of a slightly edited graph: smaller steps keep its overall shape.
+     */
+    public NodeLayout warmStart(Graph graph, double[] x, double[] y) {
+        return relax(graph, x, y, WARM_STEP * width);
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    private synchronized NodeLayout relax(Graph graph, double[] x, double[] y, double initialStep) {
+        int n = graph.getNodeCount();
+        if (x.length != n || y.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " positions, got " + x.length + "/" + y.length);
+        }
+        if (n == 0) {
+            return new NodeLayout(x, y, 0);
+        }
+
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        double k = Math.sqrt(width * height / n);
+        // The summed k²/d repulsion of n nodes spread over a disc of radius r pushes a node at distance
+        // d from the centre outwards with about width * height * d / r²; pulling back with the same
+        // slope settles the nodes inside the frame instead of piling them up against its edges.
+        double radiusX = (width / 2 - MARGIN) * GRAVITY_FILL;
+        double radiusY = (height / 2 - MARGIN) * GRAVITY_FILL;
+        double gravityX = width * height / (radiusX * radiusX);
+        double gravityY = width * height / (radiusY * radiusY);
+        double[] forceX = new double[n];
+        double[] forceY = new double[n];
+
+        int iter = 0;
+        while (iter < maxIterations) {
+            buildTree(x, y);
+            for (int v = 0; v < n; v++) {
+                repulse(v, x, y, k, forceX, forceY);
+            }
+
+            for (int e = 0; e < sources.length; e++) {
+                int u = sources[e];
+                int v = targets[e];
+                double dx = x[v] - x[u];
+                double dy = y[v] - y[u];
+                double distance = Math.max(Math.sqrt(dx * dx + dy * dy), MIN_DISTANCE);
+                double force = distance / k;
+                forceX[u] += dx * force;
+                forceY[u] += dy * force;
+                forceX[v] -= dx * force;
+                forceY[v] -= dy * force;
+            }
+
+            double temperature = initialStep * (1 - (double) iter / maxIterations);
+            double moved = 0;
+            for (int v = 0; v < n; v++) {
+                double fx = forceX[v] + gravityX * (width / 2 - x[v]);
+                double fy = forceY[v] + gravityY * (height / 2 - y[v]);
+                forceX[v] = 0;
+                forceY[v] = 0;
+                double magnitude = Math.sqrt(fx * fx + fy * fy);
+                if (magnitude > 0) {
+                    double step = Math.min(magnitude, temperature) / magnitude;
+                    double nx = Math.max(MARGIN, Math.min(width - MARGIN, x[v] + fx * step));
+                    double ny = Math.max(MARGIN, Math.min(height - MARGIN, y[v] + fy * step));
+                    moved += Math.abs(nx - x[v]) + Math.abs(ny - y[v]);
+                    x[v] = nx;
+                    y[v] = ny;
+                }
+            }
+            iter++;
+            if (moved / n < tolerance) {
+                break;
+            }
+        }
+        return new NodeLayout(x, y, iter);
+    }
+
+    private void repulse(int v, double[] x, double[] y, double k, double[] forceX, double[] forceY) {
+        double k2 = k * k;
+        double theta2 = theta * theta;
+        double fx = 0;
+        double fy = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int c = stack[--top];
+            if (body[c] == v && count[c] == 1) {
+                continue;
+            }
+            double dx = x[v] - massX[c];
+            double dy = y[v] - massY[c];
+            double distance2 = dx * dx + dy * dy;
+            double side = 2 * half[c];
+            if (body[c] != INTERNAL || side * side < theta2 * distance2) {
+                double distance = Math.max(Math.sqrt(distance2), MIN_DISTANCE);
+                double force = k2 * count[c] / (distance * distance);
+                fx += dx * force;
+                fy += dy * force;
+            } else {
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                for (int q = 0; q < 4; q++) {
+                    int ch = child[4 * c + q];
+                    if (ch != EMPTY) {
+                        stack[top++] = ch;
+                    }
+                }
+            }
+        }
+        forceX[v] += fx;
+        forceY[v] += fy;
+    }
+
+    private void buildTree(double[] x, double[] y) {
+        int n = x.length;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        ensureCapacity(2 * n + 1);
+        cells = 0;
+        newCell((minX + maxX) / 2, (minY + maxY) / 2, Math.max(maxX - minX, maxY - minY) / 2 + MIN_DISTANCE);
+        for (int i = 0; i < n; i++) {
+            insert(i, x, y);
+        }
+        for (int c = 0; c < cells; c++) {
+            massX[c] /= count[c];
+            massY[c] /= count[c];
+        }
+    }
+
+    private void insert(int i, double[] x, double[] y) {
+        int c = 0;
+        for (int depth = 0; ; depth++) {
+            if (count[c] == 0) {
+                body[c] = i;
+                addMass(c, i, x, y);
+                return;
+            }
+            if (body[c] >= 0) {
+                if (depth >= MAX_DEPTH) {
+                    addMass(c, i, x, y);
+                    return;
+                }
+                int resident = body[c];
+                body[c] = INTERNAL;
+                int ch = childFor(c, x[resident], y[resident]);
+                body[ch] = resident;
+                addMass(ch, resident, x, y);
+            }
+            addMass(c, i, x, y);
+            c = childFor(c, x[i], y[i]);
+        }
+    }
+
+    private void addMass(int c, int i, double[] x, double[] y) {
+        count[c]++;
+        massX[c] += x[i];
+        massY[c] += y[i];
+    }
+
+    private int childFor(int c, double px, double py) {
+        int quadrant = (px >= centerX[c] ? 1 : 0) | (py >= centerY[c] ? 2 : 0);
+        int slot = 4 * c + quadrant;
+        if (child[slot] == EMPTY) {
+            double h = half[c] / 2;
+            // newCell may grow the arrays, so it must run before child is dereferenced for the store
+            int created = newCell(centerX[c] + ((quadrant & 1) != 0 ? h : -h),
+                    centerY[c] + ((quadrant & 2) != 0 ? h : -h), h);
+            child[slot] = created;
+        }
+        return child[slot];
+    }
+
+    private int newCell(double cx, double cy, double h) {
+        if (cells == count.length) {
+            ensureCapacity(cells * 2);
+        }
+        int c = cells++;
+        centerX[c] = cx;
+        centerY[c] = cy;
+        half[c] = h;
+        count[c] = 0;
+        body[c] = EMPTY;
+        massX[c] = 0;
+        massY[c] = 0;
+        child[4 * c] = child[4 * c + 1] = child[4 * c + 2] = child[4 * c + 3] = EMPTY;
+        return c;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= count.length) {
+            return;
+        }
+        child = Arrays.copyOf(child, 4 * capacity);
+        body = Arrays.copyOf(body, capacity);
+        count = Arrays.copyOf(count, capacity);
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        half = Arrays.copyOf(half, capacity);
+        massX = Arrays.copyOf(massX, capacity);
+        massY = Arrays.copyOf(massY, capacity);
+    }
+}
@@ -2,193 +2,147 @@ package org.example.visualization;
 
 import org.example.model.*;
 import org.example.algorithm.MSTResult;
-import javafx.application.Platform;
-import javafx.embed.swing.JFXPanel;
-import javafx.scene.Scene;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
+import org.example.util.FlightEvents;
 import javax.imageio.ImageIO;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.scene.image.WritableImage;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
 
+/**
+ * Renders graphs to PNG with Java2D, so it needs no JavaFX toolkit and runs headless. It keeps no
+ * per-graph state, so any number of threads may render at once; {@link #render} and {@link #write}
+ * are separate so callers can overlap drawing one graph with encoding another.
+ */
 public class GraphVisualizer {
     private static final int WIDTH = 1200;
     private static final int HEIGHT = 900;
     private static final int NODE_RADIUS = 20;
 
-    public void visualizeGraph(Graph graph, MSTResult primResult, MSTResult kruskalResult,
-                               int graphId, String outputDir) {
-        CountDownLatch latch = new CountDownLatch(1);
-
-        Platform.runLater(() -> {
-            try {
-                Canvas canvas = new Canvas(WIDTH, HEIGHT);
-                GraphicsContext gc = canvas.getGraphicsContext2D();
+    // JavaFX's named colours, which the images were originally drawn with
+    private static final Color LIGHT_GRAY = new Color(211, 211, 211);
+    private static final Color LIGHT_BLUE = new Color(173, 216, 230);
+    private static final Font WEIGHT_FONT = new Font("Arial", Font.PLAIN, 10);
+    private static final Font NODE_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font TITLE_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Stroke MST_STROKE = new BasicStroke(3);
+    private static final Stroke EDGE_STROKE = new BasicStroke(1);
+    private static final Stroke NODE_STROKE = new BasicStroke(2);
+
+    private LayoutCache layoutCache;
+
+    /**
+     * Reuses node layouts through {@code layoutCache}; {@code null} (the default) lays out every graph afresh.
+     */
+    public void setLayoutCache(LayoutCache layoutCache) {
+        this.layoutCache = layoutCache;
+    }
 
-                drawGraph(gc, graph, primResult, kruskalResult);
+    public void visualizeGraph(Graph graph, MSTResult primResult, MSTResult kruskalResult,
+                               int graphId, String outputDir) throws IOException {
+        write(render(graph, primResult, kruskalResult, graphId), graphId, outputDir);
+    }
 
-                WritableImage image = canvas.snapshot(null, null);
-                BufferedImage bufferedImage = SwingFXUtils.fromFXImage(image, null);
+    /**
+     * Draws the graph with its MST highlighted; {@code graphId} only labels the flight recorder event.
+     */
+    public BufferedImage render(Graph graph, MSTResult primResult, MSTResult kruskalResult, int graphId) {
+        FlightEvents.Render event = new FlightEvents.Render();
+        event.begin();
 
-                File outputFile = new File(outputDir + "/graph_" + graphId + ".png");
-                outputFile.getParentFile().mkdirs();
-                ImageIO.write(bufferedImage, "png", outputFile);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            drawGraph(g, graph, primResult, graphId);
+        } finally {
+            g.dispose();
+        }
 
-            } catch (Exception e) {
-                e.printStackTrace();
-            } finally {
-                latch.countDown();
-            }
-        });
+        event.end();
+        if (event.shouldCommit()) {
+            event.graphId = graphId;
+            event.vertices = graph.getNodeCount();
+            event.edges = graph.getEdgeCount();
+            event.commit();
+        }
+        return image;
+    }
 
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    /**
+     * Encodes {@code image} as {@code <outputDir>/graph_<graphId>.png}.
+     */
+    public void write(BufferedImage image, int graphId, String outputDir) throws IOException {
+        File outputFile = new File(outputDir + "/graph_" + graphId + ".png");
+        outputFile.getParentFile().mkdirs();
+        if (!ImageIO.write(image, "png", outputFile)) {
+            throw new IOException("No PNG writer available for " + outputFile);
         }
     }
 
-    private void drawGraph(GraphicsContext gc, Graph graph, MSTResult primResult,
-                           MSTResult kruskalResult) {
-        gc.setFill(Color.WHITE);
-        gc.fillRect(0, 0, WIDTH, HEIGHT);
+    private void drawGraph(Graphics2D g, Graph graph, MSTResult primResult, int graphId) {
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
 
-        Map<String, Point> positions = calculateNodePositions(graph);
+        ForceLayout engine = new ForceLayout(WIDTH, HEIGHT);
+        NodeLayout layout = layoutCache != null ? layoutCache.layout(graph, graphId, engine) : engine.layout(graph);
         Set<String> mstEdgeSet = createEdgeSet(primResult.getEdges());
-
-        gc.setFont(new Font("Arial", 10));
-        for (Edge edge : graph.getEdges()) {
-            Point p1 = positions.get(edge.getFrom());
-            Point p2 = positions.get(edge.getTo());
-
-            String edgeKey = createEdgeKey(edge.getFrom(), edge.getTo());
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        int[] weights = graph.getEdgeWeights();
+        Line2D.Double line = new Line2D.Double();
+        Ellipse2D.Double oval = new Ellipse2D.Double();
+
+        g.setFont(WEIGHT_FONT);
+        for (int e = 0; e < sources.length; e++) {
+            int u = sources[e];
+            int v = targets[e];
+
+            String edgeKey = createEdgeKey(graph.getNodeName(u), graph.getNodeName(v));
             if (mstEdgeSet.contains(edgeKey)) {
-                gc.setStroke(Color.RED);
-                gc.setLineWidth(3);
+                g.setColor(Color.RED);
+                g.setStroke(MST_STROKE);
             } else {
-                gc.setStroke(Color.LIGHTGRAY);
-                gc.setLineWidth(1);
+                g.setColor(LIGHT_GRAY);
+                g.setStroke(EDGE_STROKE);
             }
 
-            gc.strokeLine(p1.x, p1.y, p2.x, p2.y);
+            line.setLine(layout.getX(u), layout.getY(u), layout.getX(v), layout.getY(v));
+            g.draw(line);
 
-            double midX = (p1.x + p2.x) / 2;
-            double midY = (p1.y + p2.y) / 2;
-            gc.setFill(Color.BLACK);
-            gc.fillText(String.valueOf(edge.getWeight()), midX, midY);
+            double midX = (layout.getX(u) + layout.getX(v)) / 2;
+            double midY = (layout.getY(u) + layout.getY(v)) / 2;
+            g.setColor(Color.BLACK);
+            g.drawString(String.valueOf(weights[e]), (float) midX, (float) midY);
         }
 
-        for (String node : graph.getNodes()) {
-            Point p = positions.get(node);
-            gc.setFill(Color.LIGHTBLUE);
-            gc.fillOval(p.x - NODE_RADIUS, p.y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-            gc.setStroke(Color.BLACK);
-            gc.setLineWidth(2);
-            gc.strokeOval(p.x - NODE_RADIUS, p.y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-
-            gc.setFill(Color.BLACK);
-            gc.setFont(new Font("Arial", 12));
-            gc.fillText(node, p.x - 5, p.y + 5);
+        g.setFont(NODE_FONT);
+        g.setStroke(NODE_STROKE);
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            double x = layout.getX(i);
+            double y = layout.getY(i);
+            oval.setFrame(x - NODE_RADIUS, y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
+            g.setColor(LIGHT_BLUE);
+            g.fill(oval);
+            g.setColor(Color.BLACK);
+            g.draw(oval);
+            g.drawString(graph.getNodeName(i), (float) (x - 5), (float) (y + 5));
         }
 
-        gc.setFill(Color.BLACK);
-        gc.setFont(new Font("Arial", 14));
-        gc.fillText("MST Cost: " + primResult.getTotalCost(), 20, 30);
-        gc.fillText("Nodes: " + graph.getNodeCount() + ", Edges: " + graph.getEdgeCount(), 20, 50);
-    }
-
-    private Map<String, Point> calculateNodePositions(Graph graph) {
-        Map<String, Point> positions = new HashMap<>();
-        List<String> nodes = graph.getNodes();
-        int n = nodes.size();
-
-        if (n <= 10) {
-            double radius = Math.min(WIDTH, HEIGHT) / 3.0;
-            double centerX = WIDTH / 2.0;
-            double centerY = HEIGHT / 2.0;
-
-            for (int i = 0; i < n; i++) {
-                double angle = 2 * Math.PI * i / n;
-                double x = centerX + radius * Math.cos(angle);
-                double y = centerY + radius * Math.sin(angle);
-                positions.put(nodes.get(i), new Point(x, y));
-            }
-        } else {
-            Random random = new Random(42);
-            int margin = 100;
-            for (String node : nodes) {
-                double x = margin + random.nextDouble() * (WIDTH - 2 * margin);
-                double y = margin + random.nextDouble() * (HEIGHT - 2 * margin);
-                positions.put(node, new Point(x, y));
-            }
-
-            forceDirectedLayout(graph, positions, 100);
-        }
-
-        return positions;
-    }
-
-    private void forceDirectedLayout(Graph graph, Map<String, Point> positions, int iterations) {
-        double k = Math.sqrt((WIDTH * HEIGHT) / graph.getNodeCount());
-
-        for (int iter = 0; iter < iterations; iter++) {
-            Map<String, Point> forces = new HashMap<>();
-            for (String node : graph.getNodes()) {
-                forces.put(node, new Point(0, 0));
-            }
-
-            for (String v : graph.getNodes()) {
-                for (String u : graph.getNodes()) {
-                    if (!v.equals(u)) {
-                        Point pv = positions.get(v);
-                        Point pu = positions.get(u);
-                        double dx = pv.x - pu.x;
-                        double dy = pv.y - pu.y;
-                        double distance = Math.max(Math.sqrt(dx * dx + dy * dy), 0.01);
-                        double force = k * k / distance;
-                        Point fv = forces.get(v);
-                        fv.x += (dx / distance) * force;
-                        fv.y += (dy / distance) * force;
-                    }
-                }
-            }
-
-            for (Edge edge : graph.getEdges()) {
-                Point p1 = positions.get(edge.getFrom());
-                Point p2 = positions.get(edge.getTo());
-                double dx = p2.x - p1.x;
-                double dy = p2.y - p1.y;
-                double distance = Math.max(Math.sqrt(dx * dx + dy * dy), 0.01);
-                double force = distance * distance / k;
-
-                Point f1 = forces.get(edge.getFrom());
-                Point f2 = forces.get(edge.getTo());
-                f1.x += (dx / distance) * force;
-                f1.y += (dy / distance) * force;
-                f2.x -= (dx / distance) * force;
-                f2.y -= (dy / distance) * force;
-            }
-
-            double temp = 0.1 * (1 - (double) iter / iterations);
-            for (String node : graph.getNodes()) {
-                Point p = positions.get(node);
-                Point f = forces.get(node);
-                double magnitude = Math.sqrt(f.x * f.x + f.y * f.y);
-                if (magnitude > 0) {
-                    p.x += (f.x / magnitude) * Math.min(magnitude, temp);
-                    p.y += (f.y / magnitude) * Math.min(magnitude, temp);
-                    p.x = Math.max(50, Math.min(WIDTH - 50, p.x));
-                    p.y = Math.max(50, Math.min(HEIGHT - 50, p.y));
-                }
-            }
-        }
+        g.setColor(Color.BLACK);
+        g.setFont(TITLE_FONT);
+        g.drawString("MST Cost: " + primResult.getTotalCost(), 20, 30);
+        g.drawString("Nodes: " + graph.getNodeCount() + ", Edges: " + graph.getEdgeCount(), 20, 50);
     }
 
     private Set<String> createEdgeSet(List<Edge> edges) {
@@ -202,17 +156,4 @@ public class GraphVisualizer {
     private String createEdgeKey(String from, String to) {
         return from.compareTo(to) < 0 ? from + "-" + to : to + "-" + from;
     }
-
-    private static class Point {
-        double x, y;
-
-        Point(double x, double y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
-
-    public static void initJavaFX() {
-        new JFXPanel();
-    }
-}
\ No newline at end of file
+}
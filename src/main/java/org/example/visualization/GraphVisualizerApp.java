@@ -1,6 +1,9 @@
 package org.example.visualization;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -14,18 +17,81 @@ import javafx.stage.Stage;
 import org.example.algorithm.*;
 import org.example.model.*;
 import org.example.util.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Browses the batch's graphs. The window opens at once; a background task then scans
+ * {@code output/output.json}, and then the input for graphs it lacks, recording only the byte
+ * offset of each record by graph id. Ids become navigable as they are found and the first graph
+ * is shown as soon as it is, while the scan goes on. A graph's record is parsed from its offset
+ * when it is prepared, and graphs without a stored result are solved then. Each graph is built
+ * and laid out on a virtual thread, and its neighbours in navigation order are prepared ahead of
+ * time, so next/previous usually shows a ready graph.
+ */
 public class GraphVisualizerApp extends Application {
     private static final int WIDTH = 1200;
     private static final int HEIGHT = 800;
     private static final int NODE_RADIUS = 20;
 
-    private List<GraphDisplayData> graphDataList;
+    private static final String INPUT_FILE = "src/main/resources/input.json";
+    private static final String OUTPUT_FILE = "output/output.json";
+    private static final String LAYOUT_CACHE_FILE = "output/cache/layouts.bin";
+    // Graphs on each side of the current one that are prepared ahead of navigation
+    private static final int PREFETCH_DISTANCE = 1;
+    private static final int PREPARED_CAPACITY = 2 * PREFETCH_DISTANCE + 3;
+    // Ids handed from the load task to the FX thread at a time, after the first one
+    private static final int PUBLISH_BATCH = 1024;
+    private static final double MIN_ZOOM = 0.25;
+    private static final double MAX_ZOOM = 40;
+    // Level-of-detail budgets, in primitives visible in the viewport
+    private static final int WEIGHT_LABEL_LIMIT = 300;
+    private static final int NODE_LABEL_LIMIT = 300;
+    private static final int NODE_OUTLINE_LIMIT = 3000;
+    private static final int OTHER_EDGE_LIMIT = 5000;
+
+    private final JSONHandler jsonHandler = new JSONHandler();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Where each graph's stored result starts in OUTPUT_FILE, and each graph without one in INPUT_FILE
+    private final Map<Integer, Long> resultOffsets = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> inputOffsets = new ConcurrentHashMap<>();
+    // Results of graphs solved on demand, so revisiting one does not solve it again
+    private final Map<Integer, OutputData.GraphResult> solved = new ConcurrentHashMap<>();
+    // FX thread only; access-ordered, so the graph visited longest ago is dropped first
+    private final Map<Integer, Task<GraphDisplayData>> prepared = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Task<GraphDisplayData>> eldest) {
+            if (size() > PREPARED_CAPACITY) {
+                eldest.getValue().cancel();
+                return true;
+            }
+            return false;
+        }
+    };
+    private volatile LayoutCache layoutCache;
+    // FX thread only; sorted, and grows while the load task is scanning
+    private final List<Integer> graphIds = new ArrayList<>();
     private int currentGraphIndex = 0;
     private Canvas canvas;
     private Label infoLabel;
     private Label statusLabel;
+    private ProgressBar progressBar;
+    // View transform: screen = world * zoom + offset, where world is the layout's coordinate space
+    private GraphDisplayData shownData;
+    private double zoom = 1;
+    private double offsetX;
+    private double offsetY;
+    private double dragX;
+    private double dragY;
+    private int[] visibleEdges = new int[256];
+    private int[] visibleNodes = new int[256];
+    private int visibleEdgeCount;
+    private int visibleNodeCount;
 
     public static void main(String[] args) {
         launch(args);
@@ -33,32 +99,49 @@ public class GraphVisualizerApp extends Application {
 
     @Override
     public void start(Stage primaryStage) {
-        try {
-            loadGraphData();
-
-            BorderPane root = new BorderPane();
-            root.setPadding(new Insets(10));
-
-            canvas = new Canvas(WIDTH, HEIGHT);
-            root.setCenter(canvas);
-
-            VBox topPanel = createTopPanel();
-            root.setTop(topPanel);
-
-            HBox bottomPanel = createBottomPanel();
-            root.setBottom(bottomPanel);
-
-            Scene scene = new Scene(root, WIDTH + 20, HEIGHT + 150);
-            primaryStage.setTitle("City Transportation Network - MST Visualization");
-            primaryStage.setScene(scene);
-            primaryStage.show();
-
-            drawCurrentGraph();
+        BorderPane root = new BorderPane();
+        root.setPadding(new Insets(10));
+
+        canvas = new Canvas(WIDTH, HEIGHT);
+        installViewControls();
+        root.setCenter(canvas);
+
+        VBox topPanel = createTopPanel();
+        root.setTop(topPanel);
+
+        HBox bottomPanel = createBottomPanel();
+        root.setBottom(bottomPanel);
+
+        Scene scene = new Scene(root, WIDTH + 20, HEIGHT + 150);
+        primaryStage.setTitle("City Transportation Network - MST Visualization");
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        clearCanvas();
+        Task<Void> loadTask = createLoadTask();
+        statusLabel.textProperty().bind(loadTask.messageProperty());
+        progressBar.progressProperty().bind(loadTask.progressProperty());
+        loadTask.setOnSucceeded(e -> {
+            if (graphIds.isEmpty()) {
+                unbindLoadProgress();
+                showError("No graphs found in " + OUTPUT_FILE + " or " + INPUT_FILE);
+            } else if (shownData != null) {
+                // The graph count has grown since the current graph was drawn
+                updateInfoLabels(shownData);
+            }
+        });
+        loadTask.setOnFailed(e -> {
+            unbindLoadProgress();
+            progressBar.setVisible(false);
+            showError("Failed to load data: " + loadTask.getException().getMessage());
+            loadTask.getException().printStackTrace();
+        });
+        executor.execute(loadTask);
+    }
 
-        } catch (Exception e) {
-            showError("Failed to load data: " + e.getMessage());
-            e.printStackTrace();
-        }
+    @Override
+    public void stop() {
+        executor.shutdownNow();
     }
 
     private VBox createTopPanel() {
@@ -72,7 +155,10 @@ public class GraphVisualizerApp extends Application {
         statusLabel = new Label();
         statusLabel.setFont(new Font("Arial", 14));
 
-        topPanel.getChildren().addAll(infoLabel, statusLabel);
+        progressBar = new ProgressBar();
+        progressBar.setPrefWidth(300);
+
+        topPanel.getChildren().addAll(infoLabel, statusLabel, progressBar);
         return topPanel;
     }
 
@@ -93,142 +179,485 @@ public class GraphVisualizerApp extends Application {
         nextButton.setStyle("-fx-font-size: 14px;");
         nextButton.setOnAction(e -> navigateGraph(1));
 
-        bottomPanel.getChildren().addAll(prevButton, nextButton);
+        Button resetButton = new Button("Reset View");
+        resetButton.setPrefWidth(150);
+        resetButton.setPrefHeight(40);
+        resetButton.setStyle("-fx-font-size: 14px;");
+        resetButton.setOnAction(e -> resetView());
+
+        bottomPanel.getChildren().addAll(prevButton, resetButton, nextButton);
 
         return bottomPanel;
     }
 
-    private void loadGraphData() throws Exception {
-        String inputFile = "src/main/resources/input.json";
+    /**
+     * Records the offset of every stored result, then of every input graph without one, and
+     * hands their ids to {@link #addGraphIds} as they are found.
+     */
+    private Task<Void> createLoadTask() {
+        return new Task<>() {
+            private List<Integer> pending = new ArrayList<>();
+            private int published;
+
+            @Override
+            protected Void call() throws Exception {
+                updateMessage("Opening layout cache...");
+                layoutCache = openLayoutCache();
+
+                File output = new File(OUTPUT_FILE);
+                if (output.exists()) {
+                    updateMessage("Indexing " + OUTPUT_FILE + "...");
+                    long length = output.length();
+                    try {
+                        jsonHandler.indexResults(OUTPUT_FILE, (id, offset) -> {
+                            if (resultOffsets.putIfAbsent(id, offset) == null) {
+                                publish(id);
+                            }
+                            updateProgress(offset, length);
+                        });
+                    } catch (IOException e) {
+                        // e.g. a batch that was interrupted mid-write; results before the cut are kept
+                        System.err.println("Ignoring the rest of unreadable " + OUTPUT_FILE + ": " + e.getMessage());
+                    }
+                }
 
-        if (!new java.io.File(inputFile).exists()) {
-            System.out.println("Generating dataset...");
-            GraphGenerator generator = new GraphGenerator();
-            InputData inputData = generator.generateCompleteDataset();
-            JSONHandler jsonHandler = new JSONHandler();
-            jsonHandler.writeInput(inputFile, inputData);
-        }
+                File input = new File(INPUT_FILE);
+                if (resultOffsets.isEmpty() && !input.exists()) {
+                    updateMessage("Generating dataset...");
+                    jsonHandler.writeInput(INPUT_FILE, new GraphGenerator().generateCompleteDataset());
+                }
 
-        JSONHandler jsonHandler = new JSONHandler();
-        InputData inputData = jsonHandler.readInput(inputFile);
+                if (input.exists()) {
+                    updateMessage("Indexing " + INPUT_FILE + "...");
+                    long length = input.length();
+                    jsonHandler.indexInput(INPUT_FILE, (id, offset) -> {
+                        if (!resultOffsets.containsKey(id) && inputOffsets.putIfAbsent(id, offset) == null) {
+                            publish(id);
+                        }
+                        updateProgress(offset, length);
+                    });
+                }
+                flush();
+                updateMessage(resultOffsets.size() + " stored results, " + inputOffsets.size()
+                        + " graphs to solve on demand");
+                updateProgress(1, 1);
+                return null;
+            }
+
+            private void publish(int id) {
+                pending.add(id);
+                // The first id goes out alone so its graph can be shown while the scan goes on
+                if (++published == 1 || pending.size() >= PUBLISH_BATCH) {
+                    flush();
+                }
+            }
 
-        PrimAlgorithm primAlgorithm = new PrimAlgorithm();
-        KruskalAlgorithm kruskalAlgorithm = new KruskalAlgorithm();
+            private void flush() {
+                if (!pending.isEmpty()) {
+                    List<Integer> batch = pending;
+                    pending = new ArrayList<>();
+                    Platform.runLater(() -> addGraphIds(batch));
+                }
+            }
+        };
+    }
 
-        graphDataList = new ArrayList<>();
+    /**
+     * Merges ids found by the load task into {@link #graphIds}, keeping the current graph
+     * selected; the first ids to arrive show the first graph.
+     */
+    private void addGraphIds(List<Integer> batch) {
+        boolean first = graphIds.isEmpty();
+        for (int id : batch) {
+            int position = Collections.binarySearch(graphIds, id);
+            if (position < 0) {
+                position = -position - 1;
+                graphIds.add(position, id);
+                if (!first && position <= currentGraphIndex) {
+                    currentGraphIndex++;
+                }
+            }
+        }
+        if (first) {
+            unbindLoadProgress();
+            showCurrentGraph();
+        } else {
+            prefetchNeighbours();
+        }
+    }
 
-        for (InputData.GraphData graphData : inputData.getGraphs()) {
-            Graph graph = jsonHandler.createGraph(graphData);
-            MSTResult primResult = primAlgorithm.findMST(graph);
-            MSTResult kruskalResult = kruskalAlgorithm.findMST(graph);
+    private void unbindLoadProgress() {
+        statusLabel.textProperty().unbind();
+        progressBar.progressProperty().unbind();
+    }
 
-            graphDataList.add(new GraphDisplayData(
-                    graphData.getId(),
-                    graph,
-                    primResult,
-                    kruskalResult
-            ));
+    private LayoutCache openLayoutCache() throws IOException {
+        try {
+            return new LayoutCache(Paths.get(LAYOUT_CACHE_FILE), LayoutCache.DEFAULT_MAX_BYTES);
+        } catch (IOException e) {
+            System.err.println("Layout cache unavailable, keeping layouts in memory: " + e.getMessage());
+            return new LayoutCache(null, LayoutCache.DEFAULT_MAX_BYTES);
         }
     }
 
     private void navigateGraph(int direction) {
-        currentGraphIndex += direction;
-        if (currentGraphIndex < 0) {
-            currentGraphIndex = graphDataList.size() - 1;
-        } else if (currentGraphIndex >= graphDataList.size()) {
-            currentGraphIndex = 0;
+        if (graphIds.isEmpty()) {
+            return;
         }
-        drawCurrentGraph();
+        currentGraphIndex = Math.floorMod(currentGraphIndex + direction, graphIds.size());
+        showCurrentGraph();
     }
 
-    private void drawCurrentGraph() {
-        GraphDisplayData data = graphDataList.get(currentGraphIndex);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
+    private void showCurrentGraph() {
+        int id = graphIds.get(currentGraphIndex);
+        Task<GraphDisplayData> task = prepare(id);
+        if (task.getState() == Worker.State.SUCCEEDED) {
+            drawGraph(task.getValue());
+        } else {
+            shownData = null;
+            clearCanvas();
+            infoLabel.setText("Graph ID: " + id);
+            boolean solving = inputOffsets.containsKey(id) && !solved.containsKey(id);
+            statusLabel.setText((solving ? "Solving" : "Laying out") + " graph " + id + "...");
+            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            progressBar.setVisible(true);
+        }
+        prefetchNeighbours();
+    }
+
+    private void prefetchNeighbours() {
+        for (int d = 1; d <= PREFETCH_DISTANCE; d++) {
+            prepare(graphIds.get(Math.floorMod(currentGraphIndex + d, graphIds.size())));
+            prepare(graphIds.get(Math.floorMod(currentGraphIndex - d, graphIds.size())));
+        }
+    }
+
+    /**
+     * Starts building, solving (if needed) and laying out graph {@code id}, unless that is already under way.
+     */
+    private Task<GraphDisplayData> prepare(int id) {
+        Task<GraphDisplayData> task = prepared.get(id);
+        if (task != null && task.getState() != Worker.State.FAILED && task.getState() != Worker.State.CANCELLED) {
+            return task;
+        }
+        Task<GraphDisplayData> created = new Task<>() {
+            @Override
+            protected GraphDisplayData call() throws IOException {
+                return loadGraph(id);
+            }
+        };
+        created.setOnSucceeded(e -> {
+            if (isCurrent(id)) {
+                drawGraph(created.getValue());
+            }
+        });
+        created.setOnFailed(e -> {
+            if (isCurrent(id)) {
+                progressBar.setVisible(false);
+                statusLabel.setText("Failed to load graph " + id + ": " + created.getException().getMessage());
+            }
+        });
+        prepared.put(id, created);
+        executor.execute(created);
+        return created;
+    }
+
+    private boolean isCurrent(int id) {
+        return !graphIds.isEmpty() && graphIds.get(currentGraphIndex) == id;
+    }
+
+    private GraphDisplayData loadGraph(int id) throws IOException {
+        Long offset = resultOffsets.get(id);
+        boolean stored = offset != null;
+        OutputData.GraphResult result = stored ? jsonHandler.readResultAt(OUTPUT_FILE, offset) : solved.get(id);
+        if (stored && result.getId() != id) {
+            throw new IOException(OUTPUT_FILE + " has changed since it was indexed");
+        }
+        Graph graph;
+        if (result != null) {
+            graph = jsonHandler.createGraph(toGraphData(result));
+        } else {
+            InputData.GraphData graphData = jsonHandler.readInputAt(INPUT_FILE, inputOffsets.get(id));
+            if (graphData.getId() != id) {
+                throw new IOException(INPUT_FILE + " has changed since it was indexed");
+            }
+            graph = jsonHandler.createGraph(graphData);
+            MSTResult primResult = new PrimAlgorithm(PrimAlgorithm.DEFAULT_HEAP_ARITY, true).findMST(graph);
+            MSTResult kruskalResult = new KruskalAlgorithm(KruskalAlgorithm.Variant.CLASSIC, true).findMST(graph);
+            result = BatchPipeline.createGraphResult(graphData, primResult, kruskalResult);
+            solved.put(id, result);
+        }
+        NodeLayout layout = layoutCache.layout(graph, id, new ForceLayout(WIDTH, HEIGHT));
+        GraphDisplayData data = new GraphDisplayData(id, graph, result, layout, stored);
+
+        Set<String> mstEdgeSet = createEdgeSet(data.shown().getMstEdges());
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        data.mstEdges = new boolean[sources.length];
+        boolean[] otherEdges = new boolean[sources.length];
+        for (int e = 0; e < sources.length; e++) {
+            data.mstEdges[e] = mstEdgeSet.contains(createEdgeKey(graph.getNodeName(sources[e]),
+                    graph.getNodeName(targets[e])));
+            otherEdges[e] = !data.mstEdges[e];
+        }
+        data.index = new SpatialIndex(layout, sources, targets);
+        data.otherEdgeDensity = data.index.countEdgesPerCell(otherEdges);
+        for (int count : data.otherEdgeDensity) {
+            data.maxOtherEdgeDensity = Math.max(data.maxOtherEdgeDensity, count);
+        }
+        return data;
+    }
 
+    private static InputData.GraphData toGraphData(OutputData.GraphResult result) {
+        InputData.GraphData graphData = new InputData.GraphData();
+        graphData.setId(result.getId());
+        graphData.setNodes(result.getNodes());
+        List<InputData.EdgeData> edges = new ArrayList<>(result.getEdges().size());
+        for (OutputData.EdgeData e : result.getEdges()) {
+            InputData.EdgeData edge = new InputData.EdgeData();
+            edge.setFrom(e.getFrom());
+            edge.setTo(e.getTo());
+            edge.setWeight(e.getWeight());
+            edges.add(edge);
+        }
+        graphData.setEdges(edges);
+        return graphData;
+    }
+
+    private void clearCanvas() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
         gc.setFill(Color.WHITE);
         gc.fillRect(0, 0, WIDTH, HEIGHT);
+    }
 
+    private void drawGraph(GraphDisplayData data) {
+        progressBar.setVisible(false);
+        if (data != shownData) {
+            shownData = data;
+            zoom = 1;
+            offsetX = 0;
+            offsetY = 0;
+        }
         updateInfoLabels(data);
-
-        Map<String, Point> positions = calculateNodePositions(data.graph);
-        Set<String> mstEdgeSet = createEdgeSet(data.primResult.getEdges());
-
-        drawEdges(gc, data.graph, positions, mstEdgeSet);
-        drawNodes(gc, data.graph, positions);
-        drawLegend(gc);
+        redraw();
     }
 
-    private void updateInfoLabels(GraphDisplayData data) {
-        infoLabel.setText(String.format("Graph ID: %d | Nodes: %d | Edges: %d | MST Cost: %d",
-                data.id,
-                data.graph.getNodeCount(),
-                data.graph.getEdgeCount(),
-                data.primResult.getTotalCost()
-        ));
+    private void installViewControls() {
+        canvas.setOnScroll(e -> {
+            // Zoom about the cursor: the world point under it stays put
+            double factor = Math.pow(1.002, e.getDeltaY());
+            double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+            offsetX = e.getX() - (e.getX() - offsetX) * newZoom / zoom;
+            offsetY = e.getY() - (e.getY() - offsetY) * newZoom / zoom;
+            zoom = newZoom;
+            redraw();
+        });
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnMouseDragged(e -> {
+            offsetX += e.getX() - dragX;
+            offsetY += e.getY() - dragY;
+            dragX = e.getX();
+            dragY = e.getY();
+            redraw();
+        });
+        canvas.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                resetView();
+            }
+        });
+    }
 
-        statusLabel.setText(String.format(
-                "Prim's: %dms (%d ops) | Kruskal's: %dms (%d ops) | Graph %d of %d",
-                data.primResult.getExecutionTimeMs(),
-                data.primResult.getOperationCount(),
-                data.kruskalResult.getExecutionTimeMs(),
-                data.kruskalResult.getOperationCount(),
-                currentGraphIndex + 1,
-                graphDataList.size()
-        ));
+    private void resetView() {
+        zoom = 1;
+        offsetX = 0;
+        offsetY = 0;
+        redraw();
     }
 
-    private void drawEdges(GraphicsContext gc, Graph graph, Map<String, Point> positions, Set<String> mstEdgeSet) {
-        gc.setFont(new Font("Arial", 10));
-        for (Edge edge : graph.getEdges()) {
-            Point p1 = positions.get(edge.getFrom());
-            Point p2 = positions.get(edge.getTo());
+    /**
+     * Draws only what the spatial index finds in the viewport, with detail scaled to how much that is:
+     * labels disappear when there are too many to read, node outlines when nodes shrink to dots, and
+     * dense non-MST edges collapse into shaded grid cells so the MST stays visible on top.
+     */
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, WIDTH, HEIGHT);
+        GraphDisplayData data = shownData;
+        if (data == null) {
+            return;
+        }
 
-            if (p1 == null || p2 == null) {
-                continue;
+        double margin = NODE_RADIUS / zoom;
+        double x0 = -offsetX / zoom - margin;
+        double y0 = -offsetY / zoom - margin;
+        double x1 = (WIDTH - offsetX) / zoom + margin;
+        double y1 = (HEIGHT - offsetY) / zoom + margin;
+        visibleEdgeCount = 0;
+        data.index.queryEdges(x0, y0, x1, y1, e -> {
+            if (visibleEdgeCount == visibleEdges.length) {
+                visibleEdges = Arrays.copyOf(visibleEdges, visibleEdgeCount * 2);
             }
+            visibleEdges[visibleEdgeCount++] = e;
+        });
+        visibleNodeCount = 0;
+        data.index.queryNodes(x0, y0, x1, y1, v -> {
+            if (visibleNodeCount == visibleNodes.length) {
+                visibleNodes = Arrays.copyOf(visibleNodes, visibleNodeCount * 2);
+            }
+            visibleNodes[visibleNodeCount++] = v;
+        });
 
-            String edgeKey = createEdgeKey(edge.getFrom(), edge.getTo());
-            if (mstEdgeSet.contains(edgeKey)) {
-                gc.setStroke(Color.RED);
-                gc.setLineWidth(3);
-            } else {
-                gc.setStroke(Color.LIGHTGRAY);
-                gc.setLineWidth(1);
+        int otherEdges = 0;
+        for (int k = 0; k < visibleEdgeCount; k++) {
+            if (!data.mstEdges[visibleEdges[k]]) {
+                otherEdges++;
             }
+        }
+        boolean collapsed = otherEdges > OTHER_EDGE_LIMIT;
+        if (collapsed) {
+            drawEdgeDensity(gc, data, x0, y0, x1, y1);
+        } else {
+            drawEdges(gc, data, false, Color.LIGHTGRAY, 1);
+        }
+        drawEdges(gc, data, true, Color.RED, Math.max(1, Math.min(3, 3 * zoom)));
+        if (visibleEdgeCount <= WEIGHT_LABEL_LIMIT) {
+            drawWeights(gc, data, collapsed);
+        }
+        drawNodes(gc, data);
+        drawLegend(gc, collapsed);
+    }
 
-            gc.strokeLine(p1.x, p1.y, p2.x, p2.y);
+    private double screenX(NodeLayout layout, int node) {
+        return layout.getX(node) * zoom + offsetX;
+    }
 
-            double midX = (p1.x + p2.x) / 2;
-            double midY = (p1.y + p2.y) / 2;
-            gc.setFill(Color.BLACK);
-            gc.fillText(String.valueOf(edge.getWeight()), midX, midY);
+    private double screenY(NodeLayout layout, int node) {
+        return layout.getY(node) * zoom + offsetY;
+    }
+
+    /**
+     * Strokes the visible MST or non-MST edges as one path, which the canvas renders far faster
+     * than one stroke per edge.
+     */
+    private void drawEdges(GraphicsContext gc, GraphDisplayData data, boolean mst, Color color, double width) {
+        int[] sources = data.graph.getEdgeSources();
+        int[] targets = data.graph.getEdgeTargets();
+        gc.setStroke(color);
+        gc.setLineWidth(width);
+        gc.beginPath();
+        for (int k = 0; k < visibleEdgeCount; k++) {
+            int e = visibleEdges[k];
+            if (data.mstEdges[e] == mst) {
+                gc.moveTo(screenX(data.layout, sources[e]), screenY(data.layout, sources[e]));
+                gc.lineTo(screenX(data.layout, targets[e]), screenY(data.layout, targets[e]));
+            }
+        }
+        gc.stroke();
+    }
+
+    private void drawEdgeDensity(GraphicsContext gc, GraphDisplayData data, double x0, double y0,
+                                 double x1, double y1) {
+        SpatialIndex index = data.index;
+        double cell = index.getCellSize();
+        int c0 = Math.max(0, (int) Math.floor((x0 - index.getCellX(0)) / cell));
+        int c1 = Math.min(index.getColumns() - 1, (int) Math.floor((x1 - index.getCellX(0)) / cell));
+        int r0 = Math.max(0, (int) Math.floor((y0 - index.getCellY(0)) / cell));
+        int r1 = Math.min(index.getRows() - 1, (int) Math.floor((y1 - index.getCellY(0)) / cell));
+        double size = cell * zoom;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int count = data.otherEdgeDensity[r * index.getColumns() + c];
+                if (count > 0) {
+                    // Square root so sparse cells stay visible next to the densest ones
+                    double shade = Math.sqrt((double) count / data.maxOtherEdgeDensity);
+                    gc.setFill(Color.gray(0.55, 0.15 + 0.6 * shade));
+                    gc.fillRect(index.getCellX(c) * zoom + offsetX, index.getCellY(r) * zoom + offsetY, size, size);
+                }
+            }
         }
     }
 
-    private void drawNodes(GraphicsContext gc, Graph graph, Map<String, Point> positions) {
-        for (String node : graph.getNodes()) {
-            Point p = positions.get(node);
-            if (p == null) {
+    private void drawWeights(GraphicsContext gc, GraphDisplayData data, boolean mstOnly) {
+        int[] sources = data.graph.getEdgeSources();
+        int[] targets = data.graph.getEdgeTargets();
+        int[] weights = data.graph.getEdgeWeights();
+        gc.setFill(Color.BLACK);
+        gc.setFont(new Font("Arial", 10));
+        for (int k = 0; k < visibleEdgeCount; k++) {
+            int e = visibleEdges[k];
+            if (mstOnly && !data.mstEdges[e]) {
                 continue;
             }
+            double midX = (screenX(data.layout, sources[e]) + screenX(data.layout, targets[e])) / 2;
+            double midY = (screenY(data.layout, sources[e]) + screenY(data.layout, targets[e])) / 2;
+            gc.fillText(String.valueOf(weights[e]), midX, midY);
+        }
+    }
 
-            gc.setFill(Color.LIGHTBLUE);
-            gc.fillOval(p.x - NODE_RADIUS, p.y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
-            gc.setStroke(Color.DARKBLUE);
-            gc.setLineWidth(2);
-            gc.strokeOval(p.x - NODE_RADIUS, p.y - NODE_RADIUS, NODE_RADIUS * 2, NODE_RADIUS * 2);
+    private void drawNodes(GraphicsContext gc, GraphDisplayData data) {
+        double radius = NODE_RADIUS * zoom;
+        boolean outlined = visibleNodeCount <= NODE_OUTLINE_LIMIT && radius >= 4;
+        boolean labelled = visibleNodeCount <= NODE_LABEL_LIMIT && radius >= 10;
 
+        gc.setFill(Color.LIGHTBLUE);
+        for (int k = 0; k < visibleNodeCount; k++) {
+            int v = visibleNodes[k];
+            double r = Math.max(radius, 1.5);
+            gc.fillOval(screenX(data.layout, v) - r, screenY(data.layout, v) - r, r * 2, r * 2);
+        }
+        if (outlined) {
+            gc.setStroke(Color.DARKBLUE);
+            gc.setLineWidth(Math.min(2, 2 * zoom));
+            for (int k = 0; k < visibleNodeCount; k++) {
+                int v = visibleNodes[k];
+                gc.strokeOval(screenX(data.layout, v) - radius, screenY(data.layout, v) - radius,
+                        radius * 2, radius * 2);
+            }
+        }
+        if (labelled) {
             gc.setFill(Color.BLACK);
             gc.setFont(new Font("Arial", 12));
-            double textWidth = node.length() * 6;
-            gc.fillText(node, p.x - textWidth / 2, p.y + 5);
+            for (int k = 0; k < visibleNodeCount; k++) {
+                int v = visibleNodes[k];
+                String node = data.graph.getNodeName(v);
+                double textWidth = node.length() * 6;
+                gc.fillText(node, screenX(data.layout, v) - textWidth / 2, screenY(data.layout, v) + 5);
+            }
         }
     }
 
-    private void drawLegend(GraphicsContext gc) {
+    private void updateInfoLabels(GraphDisplayData data) {
+        infoLabel.setText(String.format("Graph ID: %d | Nodes: %d | Edges: %d | MST Cost: %d",
+                data.id,
+                data.graph.getNodeCount(),
+                data.graph.getEdgeCount(),
+                data.shown().getTotalCost()
+        ));
+
+        OutputData.GraphResult result = data.result;
+        String timings = result.getPrim() != null && result.getKruskal() != null
+                ? String.format("Prim's: %dms (%d ops) | Kruskal's: %dms (%d ops)",
+                        result.getPrim().getExecutionTimeMs(), result.getPrim().getOperationCount(),
+                        result.getKruskal().getExecutionTimeMs(), result.getKruskal().getOperationCount())
+                : String.format("%s: %dms (%d ops)", result.getMst().getAlgorithm(),
+                        result.getMst().getExecutionTimeMs(), result.getMst().getOperationCount());
+        statusLabel.setText(String.format("%s | Graph %d of %d%s",
+                timings,
+                currentGraphIndex + 1,
+                graphIds.size(),
+                data.stored ? "" : " | solved on demand"
+        ));
+    }
+
+    private void drawLegend(GraphicsContext gc, boolean collapsed) {
         gc.setFill(Color.WHITE);
         gc.fillRect(20, HEIGHT - 80, 200, 60);
         gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
         gc.strokeRect(20, HEIGHT - 80, 200, 60);
 
         gc.setStroke(Color.RED);
@@ -238,117 +667,23 @@ public class GraphVisualizerApp extends Application {
         gc.setFont(new Font("Arial", 12));
         gc.fillText("MST Edges", 80, HEIGHT - 55);
 
-        gc.setStroke(Color.LIGHTGRAY);
-        gc.setLineWidth(1);
-        gc.strokeLine(30, HEIGHT - 35, 70, HEIGHT - 35);
-        gc.fillText("Other Edges", 80, HEIGHT - 30);
-    }
-
-    private Map<String, Point> calculateNodePositions(Graph graph) {
-        Map<String, Point> positions = new HashMap<>();
-        List<String> nodes = graph.getNodes();
-        int n = nodes.size();
-
-        if (n == 0) {
-            return positions;
-        }
-
-        if (n <= 10) {
-            double radius = Math.min(WIDTH, HEIGHT) / 3.0;
-            double centerX = WIDTH / 2.0;
-            double centerY = HEIGHT / 2.0;
-
-            for (int i = 0; i < n; i++) {
-                double angle = 2 * Math.PI * i / n - Math.PI / 2;
-                double x = centerX + radius * Math.cos(angle);
-                double y = centerY + radius * Math.sin(angle);
-                positions.put(nodes.get(i), new Point(x, y));
-            }
+        if (collapsed) {
+            gc.setFill(Color.gray(0.55, 0.5));
+            gc.fillRect(30, HEIGHT - 41, 40, 12);
+            gc.setFill(Color.BLACK);
+            gc.fillText("Other Edges (density)", 80, HEIGHT - 30);
         } else {
-            Random random = new Random(42);
-            int margin = 100;
-            for (String node : nodes) {
-                double x = margin + random.nextDouble() * (WIDTH - 2 * margin);
-                double y = margin + random.nextDouble() * (HEIGHT - 2 * margin);
-                positions.put(node, new Point(x, y));
-            }
-
-            forceDirectedLayout(graph, positions, 100);
-        }
-
-        return positions;
-    }
-
-    private void forceDirectedLayout(Graph graph, Map<String, Point> positions, int iterations) {
-        double k = Math.sqrt((WIDTH * HEIGHT) / Math.max(graph.getNodeCount(), 1));
-
-        for (int iter = 0; iter < iterations; iter++) {
-            Map<String, Point> forces = new HashMap<>();
-            for (String node : graph.getNodes()) {
-                forces.put(node, new Point(0, 0));
-            }
-
-            for (String v : graph.getNodes()) {
-                for (String u : graph.getNodes()) {
-                    if (!v.equals(u)) {
-                        Point pv = positions.get(v);
-                        Point pu = positions.get(u);
-                        if (pv == null || pu == null) {
-                            continue;
-                        }
-                        double dx = pv.x - pu.x;
-                        double dy = pv.y - pu.y;
-                        double distance = Math.max(Math.sqrt(dx * dx + dy * dy), 0.01);
-                        double force = k * k / distance;
-                        Point fv = forces.get(v);
-                        fv.x += (dx / distance) * force;
-                        fv.y += (dy / distance) * force;
-                    }
-                }
-            }
-
-            for (Edge edge : graph.getEdges()) {
-                Point p1 = positions.get(edge.getFrom());
-                Point p2 = positions.get(edge.getTo());
-                if (p1 == null || p2 == null) {
-                    continue;
-                }
-                double dx = p2.x - p1.x;
-                double dy = p2.y - p1.y;
-                double distance = Math.max(Math.sqrt(dx * dx + dy * dy), 0.01);
-                double force = distance * distance / k;
-
-                Point f1 = forces.get(edge.getFrom());
-                Point f2 = forces.get(edge.getTo());
-                if (f1 != null && f2 != null) {
-                    f1.x += (dx / distance) * force;
-                    f1.y += (dy / distance) * force;
-                    f2.x -= (dx / distance) * force;
-                    f2.y -= (dy / distance) * force;
-                }
-            }
-
-            double temp = 0.1 * (1 - (double) iter / iterations);
-            for (String node : graph.getNodes()) {
-                Point p = positions.get(node);
-                Point f = forces.get(node);
-                if (p == null || f == null) {
-                    continue;
-                }
-                double magnitude = Math.sqrt(f.x * f.x + f.y * f.y);
-                if (magnitude > 0) {
-                    p.x += (f.x / magnitude) * Math.min(magnitude, temp);
-                    p.y += (f.y / magnitude) * Math.min(magnitude, temp);
-                    p.x = Math.max(50, Math.min(WIDTH - 50, p.x));
-                    p.y = Math.max(50, Math.min(HEIGHT - 50, p.y));
-                }
-            }
+            gc.setStroke(Color.LIGHTGRAY);
+            gc.setLineWidth(1);
+            gc.strokeLine(30, HEIGHT - 35, 70, HEIGHT - 35);
+            gc.fillText("Other Edges", 80, HEIGHT - 30);
         }
+        gc.fillText(String.format("Zoom: %.0f%%", zoom * 100), 230, HEIGHT - 30);
     }
 
-    private Set<String> createEdgeSet(List<Edge> edges) {
+    private Set<String> createEdgeSet(List<OutputData.EdgeData> edges) {
         Set<String> edgeSet = new HashSet<>();
-        for (Edge edge : edges) {
+        for (OutputData.EdgeData edge : edges) {
             edgeSet.add(createEdgeKey(edge.getFrom(), edge.getTo()));
         }
         return edgeSet;
@@ -366,26 +701,31 @@ public class GraphVisualizerApp extends Application {
         alert.showAndWait();
     }
 
-    private static class Point {
-        double x, y;
-
-        Point(double x, double y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
-
     private static class GraphDisplayData {
         int id;
         Graph graph;
-        MSTResult primResult;
-        MSTResult kruskalResult;
-
-        GraphDisplayData(int id, Graph graph, MSTResult primResult, MSTResult kruskalResult) {
+        OutputData.GraphResult result;
+        NodeLayout layout;
+        boolean stored;
+        boolean[] mstEdges;
+        SpatialIndex index;
+        // Non-MST edges per index cell, drawn as shading when there are too many to stroke
+        int[] otherEdgeDensity;
+        int maxOtherEdgeDensity;
+
+        GraphDisplayData(int id, Graph graph, OutputData.GraphResult result, NodeLayout layout, boolean stored) {
             this.id = id;
             this.graph = graph;
-            this.primResult = primResult;
-            this.kruskalResult = kruskalResult;
+            this.result = result;
+            this.layout = layout;
+            this.stored = stored;
+        }
+
+        /**
+         * Prim's tree when both algorithms ran, otherwise the planner's.
+         */
+        OutputData.AlgorithmResult shown() {
+            return result.getPrim() != null ? result.getPrim() : result.getMst();
         }
     }
-}
\ No newline at end of file
+}
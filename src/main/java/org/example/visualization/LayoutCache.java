@@ -0,0 +1,469 @@
+package org.example.visualization;
+
+import org.example.model.Graph;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node layouts keyed by a 64-bit hash of the graph's topology (node names and edge endpoints in
+ * index order, which the layout depends on) and the {@link ForceLayout} settings; edge weights do
+ * not move nodes, so they are not part of the key. Entries are kept in memory with LRU eviction
+ * under a byte bound and, if a file is given, appended to it as {@code float} coordinates, so
+ * later runs start warm. Recency on disk is the order entries were stored.
+ * <p>
+ * The latest layout of each graph id (per engine setting, so the GUI and the CLI, which use
+ * different frames, never warm-start from each other) is remembered too: when a graph changed
+ * slightly since it was last laid out, its surviving nodes keep their old positions and the engine
+ * only {@linkplain ForceLayout#warmStart refines} them, which is faster and keeps the picture stable.
+ * <p>
+ * Several processes may share the file. Every read-modify-write of it happens under an exclusive
+ * {@link FileLock} on a {@code .lock} file next to it; before writing, a process first takes in the
+ * records others appended, or reloads and rewrites the file if another process compacted it.
+ */
+public class LayoutCache {
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int MAGIC = 0x4D53544C;
+    private static final int VERSION = 2;
+    private static final long HEADER_BYTES = 8;
+    // File locks are held per JVM, so instances in one process on the same file also take turns here
+    private static final Map<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+    // A previous layout is reused only if it places at least this share of the new graph's nodes
+    private static final double MIN_WARM_OVERLAP = 0.5;
+
+    private final Path file;
+    private final Path lockFile;
+    private final long maxBytes;
+    // Access-ordered: iteration starts at the least recently used key
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Keyed by graphKey(engine, graphId)
+    private final Map<Long, Long> latestByGraph = new HashMap<>();
+    private long totalBytes;
+    // Length and identity of the file as of our last read or write; a change means another process wrote it.
+    // Guarded by the file lock, not the monitor
+    private long fileBytes;
+    private Object fileKey;
+    private long hits;
+    private long warmStarts;
+
+    /**
+     * @param file     layout file, created if missing; {@code null} keeps layouts in memory only
+     * @param maxBytes bound on the layouts held, counted at 12 bytes per node plus a small header
+     */
+    public LayoutCache(Path file, long maxBytes) throws IOException {
+        this.file = file == null ? null : file.toAbsolutePath();
+        this.lockFile = file == null ? null : this.file.resolveSibling(this.file.getFileName() + ".lock");
+        this.maxBytes = maxBytes;
+        if (file == null) {
+            return;
+        }
+        if (this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+        withFileLock(() -> {
+            long end = Files.exists(this.file) ? load(0) : -1;
+            // Also drops replaced or evicted records, a foreign header and a torn tail
+            if (end != HEADER_BYTES + totalBytes || end != Files.size(this.file)) {
+                rewrite();
+            } else {
+                fileBytes = end;
+                fileKey = currentFileKey();
+            }
+        });
+    }
+
+    /**
+     * Layout of {@code graph} as {@code engine} would compute it, from the cache when possible.
+     * {@code graphId} links successive versions of the same graph for warm starts.
+     */
+    public NodeLayout layout(Graph graph, int graphId, ForceLayout engine) {
+        if (graph.getNodeCount() <= ForceLayout.CIRCLE_MAX_NODES) {
+            return engine.layout(graph);
+        }
+        long engineKey = engineKey(engine);
+        long key = key(graph, engineKey);
+        Entry previous;
+        synchronized (this) {
+            Entry hit = entries.get(key);
+            if (hit != null) {
+                hits++;
+                latestByGraph.put(graphKey(engineKey, graphId), key);
+                return hit.toLayout();
+            }
+            Long previousKey = latestByGraph.get(graphKey(engineKey, graphId));
+            previous = previousKey != null ? entries.get(previousKey) : null;
+        }
+
+        NodeLayout layout = previous != null ? warmStart(graph, graphId, previous, engine) : null;
+        if (layout == null) {
+            layout = engine.layout(graph);
+        }
+        put(new Entry(key, engineKey, graphId, nameHashes(graph), layout));
+        return layout;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getWarmStarts() {
+        return warmStarts;
+    }
+
+    static long engineKey(ForceLayout engine) {
+        long h = VERSION;
+        h = mix(h, Double.doubleToLongBits(engine.getWidth()));
+        h = mix(h, Double.doubleToLongBits(engine.getHeight()));
+        h = mix(h, engine.getMaxIterations());
+        h = mix(h, Double.doubleToLongBits(engine.getTheta()));
+        return mix(h, Double.doubleToLongBits(engine.getTolerance()));
+    }
+
+    static long key(Graph graph, long engineKey) {
+        long h = mix(engineKey, graph.getNodeCount());
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            String name = graph.getNodeName(i);
+            h = mix(h, name.length());
+            for (int c = 0; c < name.length(); c++) {
+                h = mix(h, name.charAt(c));
+            }
+        }
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        h = mix(h, sources.length);
+        for (int e = 0; e < sources.length; e++) {
+            h = mix(h, ((long) sources[e] << 32) | targets[e]);
+        }
+        return h;
+    }
+
+    private static long graphKey(long engineKey, int graphId) {
+        return mix(engineKey, graphId);
+    }
+
+    private static long mix(long h, long value) {
+        h = (h ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private NodeLayout warmStart(Graph graph, int graphId, Entry previous, ForceLayout engine) {
+        Map<Integer, Integer> oldIndex = new HashMap<>(previous.nameHashes.length * 2);
+        for (int i = 0; i < previous.nameHashes.length; i++) {
+            // Colliding names are ambiguous; leave them to be placed like new nodes
+            oldIndex.merge(previous.nameHashes[i], i, (a, b) -> -1);
+        }
+
+        int n = graph.getNodeCount();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        boolean[] placed = new boolean[n];
+        int matched = 0;
+        for (int i = 0; i < n; i++) {
+            Integer old = oldIndex.get(graph.getNodeName(i).hashCode());
+            if (old != null && old >= 0) {
+                x[i] = previous.x[old];
+                y[i] = previous.y[old];
+                placed[i] = true;
+                matched++;
+            }
+        }
+        if (matched < MIN_WARM_OVERLAP * n) {
+            return null;
+        }
+
+        // New nodes start at the centre of their already placed neighbours, or near the frame centre
+        int[] offsets = graph.getAdjacencyOffsets();
+        int[] neighbours = graph.getAdjacencyTargets();
+        Random random = new Random(graphId);
+        for (int i = 0; i < n; i++) {
+            if (placed[i]) {
+                continue;
+            }
+            double sumX = 0;
+            double sumY = 0;
+            int count = 0;
+            for (int a = offsets[i]; a < offsets[i + 1]; a++) {
+                if (placed[neighbours[a]]) {
+                    sumX += x[neighbours[a]];
+                    sumY += y[neighbours[a]];
+                    count++;
+                }
+            }
+            double jitter = 10;
+            x[i] = (count > 0 ? sumX / count : engine.getWidth() / 2) + (random.nextDouble() - 0.5) * jitter;
+            y[i] = (count > 0 ? sumY / count : engine.getHeight() / 2) + (random.nextDouble() - 0.5) * jitter;
+            placed[i] = true;
+        }
+
+        synchronized (this) {
+            warmStarts++;
+        }
+        return engine.warmStart(graph, x, y);
+    }
+
+    private static int[] nameHashes(Graph graph) {
+        int[] hashes = new int[graph.getNodeCount()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = graph.getNodeName(i).hashCode();
+        }
+        return hashes;
+    }
+
+    private void put(Entry entry) {
+        synchronized (this) {
+            add(entry);
+            evict();
+        }
+        if (file == null) {
+            return;
+        }
+        try {
+            // Lookups only need the map, so the monitor is not held across disk I/O
+            withFileLock(() -> {
+                if (!takeInOtherWrites()) {
+                    rewrite();
+                } else if (fileBytes + entry.bytes() > 2 * Math.max(maxBytes, getTotalBytes())) {
+                    // Evicted and replaced records pile up in the append-only file; drop them
+                    rewrite();
+                } else if (contains(entry.key)) {
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                            Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+                        entry.write(out);
+                    }
+                    fileBytes += entry.bytes();
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store layout in " + file, e);
+        }
+    }
+
+    private synchronized boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    private void add(Entry entry) {
+        Entry replaced = entries.put(entry.key, entry);
+        if (replaced != null) {
+            totalBytes -= replaced.bytes();
+        }
+        totalBytes += entry.bytes();
+        latestByGraph.put(graphKey(entry.engineKey, entry.graphId), entry.key);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            totalBytes -= eldest.bytes();
+            latestByGraph.remove(graphKey(eldest.engineKey, eldest.graphId), eldest.key);
+        }
+    }
+
+    /**
+     * Merges what other processes wrote since our last access. Returns false if the file can no
+     * longer simply be appended to (another process compacted it, or it ends in a torn record), in
+     * which case its records have been merged and the caller must rewrite it.
+     */
+    private boolean takeInOtherWrites() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        long size = Files.size(file);
+        if (!Objects.equals(fileKey, currentFileKey()) || size < fileBytes) {
+            load(0);
+            return false;
+        }
+        if (size == fileBytes) {
+            return true;
+        }
+        long end = load(fileBytes);
+        fileBytes = end;
+        return end == size;
+    }
+
+    /**
+     * Adds the records stored from byte {@code from} on (0 for the whole file, header included) and
+     * returns the offset just past the last complete one, or -1 if the header is not ours. The file
+     * is read first and the records are merged, then evicted down to the bound, under the monitor.
+     */
+    private long load(long from) throws IOException {
+        long size = Files.size(file);
+        long position = from;
+        List<Entry> loaded = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (from == 0) {
+                if (size < HEADER_BYTES || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    return -1;
+                }
+                position = HEADER_BYTES;
+            } else {
+                in.skipNBytes(from);
+            }
+            for (Entry entry = Entry.read(in, size); entry != null; entry = Entry.read(in, size)) {
+                loaded.add(entry);
+                position += entry.bytes();
+            }
+        } catch (EOFException e) {
+            // Truncated by an interrupted run; everything before the torn record is intact
+        }
+        synchronized (this) {
+            for (Entry entry : loaded) {
+                add(entry);
+            }
+            evict();
+        }
+        return position;
+    }
+
+    private void rewrite() throws IOException {
+        List<Entry> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.values());
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long bytes = HEADER_BYTES;
+        try (DataOutputStream tmpOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            tmpOut.writeInt(MAGIC);
+            tmpOut.writeInt(VERSION);
+            for (Entry entry : snapshot) {
+                entry.write(tmpOut);
+                bytes += entry.bytes();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        fileBytes = bytes;
+        fileKey = currentFileKey();
+    }
+
+    // Changes when another process replaces the file by rename; null where the file system has no such id
+    private Object currentFileKey() throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    private void withFileLock(FileAction action) throws IOException {
+        synchronized (PROCESS_LOCKS.computeIfAbsent(file, k -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileAction {
+        void run() throws IOException;
+    }
+
+    private static class Entry {
+        final long key;
+        final long engineKey;
+        final int graphId;
+        final int iterations;
+        final int[] nameHashes;
+        final float[] x;
+        final float[] y;
+
+        Entry(long key, long engineKey, int graphId, int iterations, int[] nameHashes, float[] x, float[] y) {
+            this.key = key;
+            this.engineKey = engineKey;
+            this.graphId = graphId;
+            this.iterations = iterations;
+            this.nameHashes = nameHashes;
+            this.x = x;
+            this.y = y;
+        }
+
+        Entry(long key, long engineKey, int graphId, int[] nameHashes, NodeLayout layout) {
+            this(key, engineKey, graphId, layout.getIterations(), nameHashes, new float[layout.size()],
+                    new float[layout.size()]);
+            for (int i = 0; i < layout.size(); i++) {
+                x[i] = (float) layout.getX(i);
+                y[i] = (float) layout.getY(i);
+            }
+        }
+
+        long bytes() {
+            return 28 + 12L * x.length;
+        }
+
+        NodeLayout toLayout() {
+            double[] dx = new double[x.length];
+            double[] dy = new double[y.length];
+            for (int i = 0; i < x.length; i++) {
+                dx[i] = x[i];
+                dy[i] = y[i];
+            }
+            return new NodeLayout(dx, dy, iterations);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(key);
+            out.writeLong(engineKey);
+            out.writeInt(graphId);
+            out.writeInt(iterations);
+            out.writeInt(x.length);
+            for (int hash : nameHashes) {
+                out.writeInt(hash);
+            }
+            for (float v : x) {
+                out.writeFloat(v);
+            }
+            for (float v : y) {
+                out.writeFloat(v);
+            }
+        }
+
+        /**
+         * Next entry, or {@code null} at a clean end of file.
+         */
+        static Entry read(DataInputStream in, long fileSize) throws IOException {
+            long key;
+            try {
+                key = in.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            long engineKey = in.readLong();
+            int graphId = in.readInt();
+            int iterations = in.readInt();
+            int n = in.readInt();
+            if (n < 0 || 12L * n > fileSize) {
+                throw new EOFException("Corrupt layout record");
+            }
+            int[] hashes = new int[n];
+            float[] x = new float[n];
+            float[] y = new float[n];
+            for (int i = 0; i < n; i++) {
+                hashes[i] = in.readInt();
+            }
+            for (int i = 0; i < n; i++) {
+                x[i] = in.readFloat();
+            }
+            for (int i = 0; i < n; i++) {
+                y[i] = in.readFloat();
+            }
+            return new Entry(key, engineKey, graphId, iterations, hashes, x, y);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.visualization;
+
+/**
+ * Node positions of one graph, indexed like {@link org.example.model.Graph#getNodeIndex(String)}.
+ */
+public class NodeLayout {
+    private final double[] x;
+    private final double[] y;
+    private final int iterations;
+
+    public NodeLayout(double[] x, double[] y, int iterations) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length: " + x.length + " vs " + y.length);
+        }
+        this.x = x;
+        this.y = y;
+        this.iterations = iterations;
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    /**
+     * Force-directed iterations that produced this layout; 0 for fixed placements.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.visualization;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over the nodes and edge segments of one layout, answering "what lies in this
+ * rectangle" in time proportional to the cells it covers and the items found. The cell size is
+ * chosen to hold about one node each; an edge is filed under every cell its segment passes
+ * through (not its bounding box), so long edges stay cheap. Cells are stored CSR-style, like the
+ * graph's adjacency.
+ * <p>
+ * Queries reuse a scratch buffer and are meant to run on one thread (the UI thread).
+ */
+public class SpatialIndex {
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] nodeStart;
+    private final int[] nodeItems;
+    private final int[] edgeStart;
+    private final int[] edgeItems;
+    // Per edge, the query that last reported it, so an edge spanning several cells is reported once
+    private final int[] edgeStamp;
+    private int query;
+
+    public SpatialIndex(NodeLayout layout, int[] sources, int[] targets) {
+        int n = layout.size();
+        double loX = Double.POSITIVE_INFINITY, loY = Double.POSITIVE_INFINITY;
+        double hiX = Double.NEGATIVE_INFINITY, hiY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            loX = Math.min(loX, layout.getX(i));
+            hiX = Math.max(hiX, layout.getX(i));
+            loY = Math.min(loY, layout.getY(i));
+            hiY = Math.max(hiY, layout.getY(i));
+        }
+        if (n == 0) {
+            loX = loY = hiX = hiY = 0;
+        }
+        double spanX = Math.max(hiX - loX, 1);
+        double spanY = Math.max(hiY - loY, 1);
+        double size = Math.sqrt(spanX * spanY / Math.max(n, 1));
+        size = Math.max(size, Math.max(spanX, spanY) / MAX_CELLS_PER_AXIS);
+
+        this.minX = loX;
+        this.minY = loY;
+        this.cellSize = size;
+        this.columns = (int) (spanX / size) + 1;
+        this.rows = (int) (spanY / size) + 1;
+
+        int cells = columns * rows;
+        nodeStart = new int[cells + 1];
+        for (int i = 0; i < n; i++) {
+            nodeStart[cellOf(layout.getX(i), layout.getY(i)) + 1]++;
+        }
+        prefixSum(nodeStart);
+        nodeItems = new int[n];
+        int[] fill = Arrays.copyOf(nodeStart, cells);
+        for (int i = 0; i < n; i++) {
+            nodeItems[fill[cellOf(layout.getX(i), layout.getY(i))]++] = i;
+        }
+
+        edgeStart = new int[cells + 1];
+        for (int e = 0; e < sources.length; e++) {
+            traverse(layout, sources[e], targets[e], cell -> edgeStart[cell + 1]++);
+        }
+        prefixSum(edgeStart);
+        edgeItems = new int[edgeStart[cells]];
+        int[] edgeFill = Arrays.copyOf(edgeStart, cells);
+        for (int e = 0; e < sources.length; e++) {
+            int edge = e;
+            traverse(layout, sources[e], targets[e], cell -> edgeItems[edgeFill[cell]++] = edge);
+        }
+        edgeStamp = new int[sources.length];
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public double getCellX(int column) {
+        return minX + column * cellSize;
+    }
+
+    public double getCellY(int row) {
+        return minY + row * cellSize;
+    }
+
+    /**
+     * Number of edges filed under each cell (row-major) for which {@code counted} is true.
+     */
+    public int[] countEdgesPerCell(boolean[] counted) {
+        int[] counts = new int[columns * rows];
+        for (int cell = 0; cell < counts.length; cell++) {
+            for (int k = edgeStart[cell]; k < edgeStart[cell + 1]; k++) {
+                if (counted[edgeItems[k]]) {
+                    counts[cell]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Reports every node in cells overlapping the rectangle; may include nodes just outside it.
+     */
+    public void queryNodes(double x0, double y0, double x1, double y1, IntConsumer consumer) {
+        int c0 = column(x0), c1 = column(x1), r0 = row(y0), r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int k = nodeStart[cell]; k < nodeStart[cell + 1]; k++) {
+                    consumer.accept(nodeItems[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports, once each, every edge whose segment passes through a cell overlapping the rectangle.
+     */
+    public void queryEdges(double x0, double y0, double x1, double y1, IntConsumer consumer) {
+        if (++query == 0) {
+            Arrays.fill(edgeStamp, 0);
+            query = 1;
+        }
+        int c0 = column(x0), c1 = column(x1), r0 = row(y0), r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int k = edgeStart[cell]; k < edgeStart[cell + 1]; k++) {
+                    int edge = edgeItems[k];
+                    if (edgeStamp[edge] != query) {
+                        edgeStamp[edge] = query;
+                        consumer.accept(edge);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Grid traversal (Amanatides–Woo): visits the cells the segment u-v crosses, stepping one
+     * column or row at a time, so it takes exactly the Manhattan distance between the end cells.
+     */
+    private void traverse(NodeLayout layout, int u, int v, IntConsumer visit) {
+        double gx0 = (layout.getX(u) - minX) / cellSize;
+        double gy0 = (layout.getY(u) - minY) / cellSize;
+        double gx1 = (layout.getX(v) - minX) / cellSize;
+        double gy1 = (layout.getY(v) - minY) / cellSize;
+        int cx = clamp((int) gx0, columns), cy = clamp((int) gy0, rows);
+        int ex = clamp((int) gx1, columns), ey = clamp((int) gy1, rows);
+        int stepX = Integer.signum(ex - cx);
+        int stepY = Integer.signum(ey - cy);
+        double dx = gx1 - gx0;
+        double dy = gy1 - gy0;
+        double tMaxX = stepX == 0 ? Double.POSITIVE_INFINITY : ((stepX > 0 ? cx + 1 : cx) - gx0) / dx;
+        double tMaxY = stepY == 0 ? Double.POSITIVE_INFINITY : ((stepY > 0 ? cy + 1 : cy) - gy0) / dy;
+        double tDeltaX = stepX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dx);
+        double tDeltaY = stepY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dy);
+
+        visit.accept(cy * columns + cx);
+        for (int steps = Math.abs(ex - cx) + Math.abs(ey - cy); steps > 0; steps--) {
+            if (cy == ey || (cx != ex && tMaxX < tMaxY)) {
+                cx += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cy += stepY;
+                tMaxY += tDeltaY;
+            }
+            visit.accept(cy * columns + cx);
+        }
+    }
+
+    private int cellOf(double x, double y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(double x) {
+        return clamp((int) Math.floor((x - minX) / cellSize), columns);
+    }
+
+    private int row(double y) {
+        return clamp((int) Math.floor((y - minY) / cellSize), rows);
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    private static void prefixSum(int[] counts) {
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+
+import org.example.algorithm.*;
+import org.example.model.*;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class DynamicMSTTest {
+    private KruskalAlgorithm kruskalAlgorithm;
+
+    @BeforeEach
+    public void setUp() {
+        kruskalAlgorithm = new KruskalAlgorithm();
+    }
+
+    @Test
+    public void testRandomUpdatesMatchFullRecomputation() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            int nodeCount = 40;
+            List<String> nodes = new ArrayList<>();
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add("N" + i);
+            }
+            List<Edge> edges = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                edges.add(new Edge(nodes.get(random.nextInt(nodeCount)), nodes.get(random.nextInt(nodeCount)),
+                        random.nextInt(20) + 1));
+            }
+
+            DynamicMST dynamic = new DynamicMST(new Graph(nodes, edges));
+            List<Integer> live = new ArrayList<>();
+            for (int e = 0; e < edges.size(); e++) {
+                live.add(e);
+            }
+            assertMatchesRecomputation(dynamic, "initial state, seed " + seed);
+
+            for (int step = 0; step < 1500; step++) {
+                int op = random.nextInt(3);
+                if (op == 0 || live.isEmpty()) {
+                    live.add(dynamic.insertEdge(nodes.get(random.nextInt(nodeCount)),
+                            nodes.get(random.nextInt(nodeCount)), random.nextInt(20) + 1));
+                } else if (op == 1) {
+                    dynamic.deleteEdge(live.remove(random.nextInt(live.size())));
+                } else {
+                    dynamic.updateWeight(live.get(random.nextInt(live.size())), random.nextInt(20) + 1);
+                }
+                assertMatchesRecomputation(dynamic, "step " + step + ", seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    public void testTreeEdgeDeletionFindsReplacement() {
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<Edge> edges = Arrays.asList(
+                new Edge("A", "B", 1),
+                new Edge("B", "C", 2),
+                new Edge("C", "D", 3),
+                new Edge("A", "D", 10)
+        );
+        DynamicMST dynamic = new DynamicMST(new Graph(nodes, edges));
+        assertEquals(6, dynamic.getTotalCost());
+        assertFalse(dynamic.isTreeEdge(dynamic.findEdge("A", "D")), "Heaviest cycle edge must stay out");
+
+        long seeded = dynamic.getOperationCount();
+        assertEquals(seeded, dynamic.getCurrentMST().getOperationCount(), "Snapshot must report the real work done");
+
+        dynamic.deleteEdge(dynamic.findEdge("B", "C"));
+        assertEquals(14, dynamic.getTotalCost(), "A-D must replace the deleted B-C");
+        MSTResult afterDelete = dynamic.getCurrentMST();
+        assertEquals(3, afterDelete.getEdges().size());
+        assertTrue(afterDelete.getOperationCount() > seeded, "The replacement search must be counted");
+        assertEquals(4, afterDelete.getVertexCount());
+        assertEquals(3, afterDelete.getEdgeCount(), "Edge count must be the live edges");
+
+        int ac = dynamic.insertEdge("A", "C", 4);
+        assertTrue(dynamic.isTreeEdge(ac), "A-C must displace A-D");
+        assertEquals(8, dynamic.getTotalCost());
+
+        dynamic.updateWeight(ac, 50);
+        assertEquals(14, dynamic.getTotalCost(), "A-D must come back once A-C gets heavier");
+    }
+
+    private void assertMatchesRecomputation(DynamicMST dynamic, String context) {
+        MSTResult expected = kruskalAlgorithm.findMST(dynamic.toGraph());
+        MSTResult actual = dynamic.getCurrentMST();
+        assertEquals(expected.getTotalCost(), actual.getTotalCost(), "Cost mismatch at " + context);
+        assertEquals(expected.getEdges().size(), actual.getEdges().size(), "Forest size mismatch at " + context);
+    }
+}
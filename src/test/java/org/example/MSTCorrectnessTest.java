@@ -1,11 +1,38 @@
 package org.example;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.algorithm.*;
 import org.example.model.*;
+import org.example.util.BatchPipeline;
+import org.example.util.BinaryGraphReader;
+import org.example.util.BinaryGraphWriter;
+import org.example.util.GraphDataReader;
+import org.example.util.GraphGenerator;
 import org.example.util.JSONHandler;
+import org.example.util.LatencyHistogram;
+import org.example.util.ResultCache;
+import org.example.util.ResultWriter;
+import org.example.util.WorkloadGenerator;
+import org.example.visualization.ForceLayout;
+import org.example.visualization.GraphVisualizer;
+import org.example.visualization.LayoutCache;
+import org.example.visualization.NodeLayout;
+import org.example.visualization.SpatialIndex;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 public class MSTCorrectnessTest {
     private PrimAlgorithm primAlgorithm;
@@ -75,6 +102,260 @@ public class MSTCorrectnessTest {
                 "Disconnected graph should have fewer edges");
     }
 
+    @Test
+    public void testSpanningForestModeCoversEveryComponent() {
+        // Three random components plus an isolated node, interleaved so node 0 is not special
+        Random random = new Random(21);
+        int components = 4;
+        int n = 3_001;
+        List<String> nodes = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            nodes.add("N" + v);
+        }
+        int[] from = new int[9_000];
+        int[] to = new int[9_000];
+        int[] weights = new int[9_000];
+        int perComponent = (n - 1) / (components - 1);
+        for (int e = 0; e < from.length; e++) {
+            // Node v belongs to component v % 3; the first n - 1 edges close a ring in each one
+            int component = e % (components - 1);
+            int i = e < n - 1 ? e / (components - 1) : random.nextInt(perComponent);
+            int j = e < n - 1 ? (i + 1) % perComponent : random.nextInt(perComponent);
+            from[e] = component + (components - 1) * i;
+            to[e] = component + (components - 1) * j;
+            weights[e] = 1 + random.nextInt(50);
+        }
+        Graph graph = Graph.fromIndexedEdges(nodes, from, to, weights);
+        assertEquals(components, graph.getComponentCount());
+        assertFalse(graph.isConnected());
+
+        MSTResult prim = new PrimAlgorithm(PrimAlgorithm.DEFAULT_HEAP_ARITY, true).findMST(graph);
+        MSTResult kruskal = new KruskalAlgorithm(KruskalAlgorithm.Variant.CLASSIC, true).findMST(graph);
+        MSTResult filter = new KruskalAlgorithm(KruskalAlgorithm.Variant.FILTER, true).findMST(graph);
+        for (MSTResult result : Arrays.asList(prim, kruskal, filter)) {
+            assertEquals(n - components, result.getEdges().size(), "Forest must span every component");
+            assertEquals(components, result.getComponentCount());
+            assertArrayEquals(graph.getComponentLabels(), result.getComponentIds());
+            for (Edge edge : result.getEdges()) {
+                assertEquals(result.getComponentIds()[graph.getNodeIndex(edge.getFrom())],
+                        result.getComponentIds()[graph.getNodeIndex(edge.getTo())]);
+            }
+        }
+        assertEquals(kruskal.getTotalCost(), prim.getTotalCost());
+        assertEquals(kruskal.getTotalCost(), filter.getTotalCost());
+        assertTrue(primAlgorithm.findMST(graph).getEdges().size() < n - components,
+                "Default Prim still stops at node 0's component");
+
+        // A long path must not overflow the stack when labelling
+        int pathLength = 500_000;
+        List<String> pathNodes = new ArrayList<>(pathLength);
+        int[] pathFrom = new int[pathLength - 1];
+        int[] pathTo = new int[pathLength - 1];
+        for (int v = 0; v < pathLength; v++) {
+            pathNodes.add(Integer.toString(v));
+        }
+        for (int v = 0; v + 1 < pathLength; v++) {
+            pathFrom[v] = v;
+            pathTo[v] = v + 1;
+        }
+        assertTrue(Graph.fromIndexedEdges(pathNodes, pathFrom, pathTo, new int[pathLength - 1]).isConnected());
+    }
+
+    @Test
+    public void testPhaseMetricsAndCounters() {
+        Graph graph = createRandomGraph(2_000, 8_000, 1_000, new Random(17));
+        int n = graph.getNodeCount();
+
+        MSTMetrics prim = primAlgorithm.findMST(graph).getMetrics();
+        assertEquals(n, prim.getHeapPushes(), "Every node enters the heap once");
+        assertEquals(n, prim.getHeapPops());
+        assertEquals(0, prim.getFinds());
+        assertTrue(prim.getHeapNanos() > 0 && prim.getHeapNanos() <= prim.getTotalNanos());
+
+        for (KruskalAlgorithm.Variant variant : KruskalAlgorithm.Variant.values()) {
+            MSTResult result = new KruskalAlgorithm(variant).findMST(graph);
+            MSTMetrics kruskal = result.getMetrics();
+            assertEquals(n - 1, kruskal.getUnions(), variant + ": one union per tree edge");
+            assertTrue(kruskal.getFinds() >= 2 * kruskal.getUnions());
+            assertEquals(0, kruskal.getHeapPushes());
+            assertTrue(kruskal.getSortNanos() + kruskal.getUnionFindNanos() + kruskal.getAssemblyNanos()
+                    <= kruskal.getTotalNanos(), variant + ": phases must fit in the total");
+            assertEquals(graph.getBuildNanos(), kruskal.getGraphBuildNanos());
+            assertEquals(MSTResult.csvMetricsHeader().split(",").length,
+                    result.toCsvMetricsRow("random", variant.name()).split(",").length);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertTrue(histogram.getPercentile(50) >= 500 && histogram.getPercentile(50) < 1000);
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testFlightRecorderEventsCarryGraphIds() throws Exception {
+        List<InputData.GraphData> graphs = new GraphGenerator().generateCompleteDataset().getGraphs().subList(0, 5);
+        Path file = Files.createTempFile("mst", ".jfr");
+        file.toFile().deleteOnExit();
+
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.MSTRun");
+            recording.enable("org.example.GraphBuild");
+            recording.start();
+            new BatchPipeline(2, null, null).run(graphs);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Set<String> runs = new HashSet<>();
+        Set<Integer> built = new HashSet<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("org.example.MSTRun")) {
+                runs.add(event.getString("algorithm") + "#" + event.getInt("graphId"));
+                assertTrue(event.getInt("vertices") > 0);
+                assertTrue(event.hasField("heapDecreaseKeys"), "Every MST counter must be recorded");
+            } else if (event.getEventType().getName().equals("org.example.GraphBuild")) {
+                built.add(event.getInt("graphId"));
+            }
+        }
+        for (InputData.GraphData graph : graphs) {
+            assertTrue(runs.contains("prim#" + graph.getId()), "Missing Prim event for graph " + graph.getId());
+            assertTrue(runs.contains("kruskal#" + graph.getId()));
+            assertTrue(built.contains(graph.getId()));
+        }
+    }
+
+    @Test
+    public void testWorkloadGeneratorIsDeterministicAcrossPoolSizes() throws Exception {
+        List<WorkloadGenerator.Spec> specs = new ArrayList<>();
+        int id = 1;
+        for (WorkloadGenerator.Topology topology : WorkloadGenerator.Topology.values()) {
+            int nodes = topology == WorkloadGenerator.Topology.COMPLETE ? 300 : 20_000;
+            WorkloadGenerator.WeightDistribution weights = topology == WorkloadGenerator.Topology.GEOMETRIC
+                    ? WorkloadGenerator.WeightDistribution.EUCLIDEAN : WorkloadGenerator.WeightDistribution.EXPONENTIAL;
+            specs.add(new WorkloadGenerator.Spec(id++, topology, nodes, 8, weights, 10_000));
+        }
+
+        File single = File.createTempFile("workload-1", ".mstg");
+        File parallel = File.createTempFile("workload-4", ".mstg");
+        single.deleteOnExit();
+        parallel.deleteOnExit();
+        ForkJoinPool onePool = new ForkJoinPool(1);
+        ForkJoinPool fourPool = new ForkJoinPool(4);
+        try {
+            new WorkloadGenerator(5, onePool).write(specs, single);
+            new WorkloadGenerator(5, fourPool).write(specs, parallel);
+        } finally {
+            onePool.shutdown();
+            fourPool.shutdown();
+        }
+        assertArrayEquals(Files.readAllBytes(single.toPath()), Files.readAllBytes(parallel.toPath()),
+                "Output must not depend on the pool size");
+
+        try (BinaryGraphReader reader = new BinaryGraphReader(parallel)) {
+            for (WorkloadGenerator.Spec spec : specs) {
+                Graph graph = reader.readGraph(spec.getId());
+                int n = spec.getNodeCount();
+                assertEquals(n, graph.getNodeCount());
+                switch (spec.getTopology()) {
+                    case GRID -> {
+                        int cols = (int) Math.ceil(Math.sqrt(n));
+                        int rows = (n + cols - 1) / cols;
+                        assertEquals((n - rows) + (n - cols), graph.getEdgeCount(), "Horizontal plus vertical links");
+                    }
+                    case COMPLETE -> assertEquals(n * (n - 1) / 2, graph.getEdgeCount());
+                    case SCALE_FREE -> assertEquals((n - 1) * 4, graph.getEdgeCount());
+                    default -> assertEquals(4.0 * n, graph.getEdgeCount(), 0.1 * 4 * n,
+                            spec.getTopology() + " must hit the average degree");
+                }
+                MSTResult prim = new PrimAlgorithm(PrimAlgorithm.DEFAULT_HEAP_ARITY, true).findMST(graph);
+                MSTResult kruskal = new KruskalAlgorithm(KruskalAlgorithm.Variant.CLASSIC, true).findMST(graph);
+                assertEquals(kruskal.getTotalCost(), prim.getTotalCost(), spec.getTopology() + " cost mismatch");
+                assertEquals(n - graph.getComponentCount(), prim.getEdges().size());
+            }
+        }
+    }
+
+    @Test
+    public void testCreateGraphInternsNamesAcrossGraphs() {
+        JSONHandler jsonHandler = new JSONHandler();
+        List<InputData.GraphData> graphs = new GraphGenerator().generateCompleteDataset().getGraphs();
+        Set<String> distinct = new HashSet<>();
+        List<Graph> built = new ArrayList<>();
+        for (InputData.GraphData graphData : graphs) {
+            distinct.addAll(graphData.getNodes());
+            Graph graph = jsonHandler.createGraph(graphData);
+            built.add(graph);
+
+            List<Edge> edges = new ArrayList<>();
+            for (InputData.EdgeData e : graphData.getEdges()) {
+                edges.add(new Edge(e.getFrom(), e.getTo(), e.getWeight()));
+            }
+            Graph byName = new Graph(graphData.getNodes(), edges);
+            assertEquals(byName.getEdges(), graph.getEdges());
+            assertEquals(kruskalAlgorithm.findMST(byName).getEdges(), kruskalAlgorithm.findMST(graph).getEdges());
+        }
+        assertEquals(distinct.size(), jsonHandler.getNodeDictionary().size(), "Each name is interned once");
+        assertSame(built.get(0).getNodeName(0), built.get(27).getNodeName(0), "Equal names share one String");
+        assertEquals(3, built.get(27).getNodeIndex(built.get(27).getNodeName(3)));
+
+        InputData.GraphData broken = new InputData.GraphData();
+        broken.setId(99);
+        broken.setNodes(Arrays.asList("A", "B"));
+        InputData.EdgeData dangling = new InputData.EdgeData();
+        dangling.setFrom("A");
+        dangling.setTo("Z");
+        broken.setEdges(List.of(dangling));
+        assertThrows(IllegalArgumentException.class, () -> jsonHandler.createGraph(broken));
+    }
+
+    @Test
+    public void testBarnesHutLayoutApproximatesExactRepulsion() {
+        WorkloadGenerator generator = new WorkloadGenerator(3, ForkJoinPool.commonPool());
+        Graph small = generator.generate(new WorkloadGenerator.Spec(1, WorkloadGenerator.Topology.ERDOS_RENYI,
+                400, 4, WorkloadGenerator.WeightDistribution.UNIFORM, 100));
+        NodeLayout exact = new ForceLayout(1200, 900, 1, 0, 0).layout(small);
+        NodeLayout approximate = new ForceLayout(1200, 900, 1, ForceLayout.DEFAULT_THETA, 0).layout(small);
+        double drift = 0;
+        for (int i = 0; i < small.getNodeCount(); i++) {
+            drift += Math.abs(exact.getX(i) - approximate.getX(i)) + Math.abs(exact.getY(i) - approximate.getY(i));
+        }
+        assertTrue(drift / small.getNodeCount() < 5, "One step may deviate by a few pixels, was " + drift);
+
+        Graph grid = generator.generate(new WorkloadGenerator.Spec(2, WorkloadGenerator.Topology.GRID,
+                5_000, 4, WorkloadGenerator.WeightDistribution.UNIFORM, 100));
+        NodeLayout layout = new ForceLayout(1200, 900).layout(grid);
+        assertEquals(grid.getNodeCount(), layout.size());
+        double edgeLength = 0;
+        for (int e = 0; e < grid.getEdgeCount(); e++) {
+            int u = grid.getEdgeSources()[e];
+            int v = grid.getEdgeTargets()[e];
+            edgeLength += Math.hypot(layout.getX(u) - layout.getX(v), layout.getY(u) - layout.getY(v));
+        }
+        for (int i = 0; i < layout.size(); i++) {
+            assertTrue(layout.getX(i) >= 50 && layout.getX(i) <= 1150 && layout.getY(i) >= 50 && layout.getY(i) <= 850);
+        }
+        assertTrue(edgeLength / grid.getEdgeCount() < 100, "Neighbours must be pulled together");
+
+        NodeLayout again = new ForceLayout(1200, 900).layout(grid);
+        assertEquals(layout.getX(4321), again.getX(4321));
+        assertEquals(1, new ForceLayout(1200, 900, 100, 0.8, 1e9).layout(grid).getIterations(),
+                "Converged runs stop early");
+        assertEquals(0, new ForceLayout(1200, 900).layout(createSimpleGraph()).getIterations());
+
+        // Near-coincident pairs force deep subdivisions and make the quadtree outgrow its initial arrays
+        double[] x = new double[grid.getNodeCount()];
+        double[] y = new double[grid.getNodeCount()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 100 + (i / 2) % 1000 + (i % 2) * 1e-9;
+            y[i] = 100 + (i / 2) / 1000 * 100;
+        }
+        NodeLayout relaxed = new ForceLayout(1200, 900, 5, ForceLayout.DEFAULT_THETA, 0).relax(grid, x, y);
+        assertEquals(5, relaxed.getIterations());
+    }
+
     @Test
     public void testExecutionTimeNonNegative() {
         Graph graph = createSimpleGraph();
@@ -110,6 +391,661 @@ public class MSTCorrectnessTest {
                 "Results must be reproducible");
     }
 
+    @Test
+    public void testAdjacencyMatchesEdgeList() {
+        Graph graph = createSimpleGraph();
+        int[] offsets = graph.getAdjacencyOffsets();
+        int[] targets = graph.getAdjacencyTargets();
+        int[] weights = graph.getAdjacencyWeights();
+
+        assertEquals(2 * graph.getEdgeCount(), offsets[graph.getNodeCount()],
+                "Every edge must appear once per endpoint");
+
+        int[][] matrix = graph.getAdjacencyMatrix();
+        for (int v = 0; v < graph.getNodeCount(); v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                assertEquals(matrix[v][targets[i]], weights[i],
+                        "Adjacency weight must match the matrix");
+            }
+        }
+        assertTrue(graph.isConnected(), "Simple graph must be connected");
+        assertFalse(createDisconnectedGraph().isConnected(), "Disconnected graph must be detected");
+    }
+
+    @Test
+    public void testPrimHeapArityMatchesKruskalOnGeneratedGraphs() {
+        JSONHandler jsonHandler = new JSONHandler();
+        InputData inputData = new GraphGenerator().generateCompleteDataset();
+
+        for (InputData.GraphData graphData : inputData.getGraphs()) {
+            Graph graph = jsonHandler.createGraph(graphData);
+            int expected = kruskalAlgorithm.findMST(graph).getTotalCost();
+            for (int arity : new int[]{2, 3, 4, 8}) {
+                MSTResult result = new PrimAlgorithm(arity).findMST(graph);
+                assertEquals(expected, result.getTotalCost(),
+                        "Prim (arity " + arity + ") cost mismatch on graph " + graphData.getId());
+                assertEquals(graph.getNodeCount() - 1, result.getEdges().size(),
+                        "Prim (arity " + arity + ") must span graph " + graphData.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testEdgeSorterIsStableAcrossWeightRanges() {
+        Random random = new Random(7);
+        for (int bound : new int[]{5, 100, 50_000, 5_000_000, Integer.MAX_VALUE}) {
+            int[] weights = new int[1000];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextInt(bound) - bound / 2;
+            }
+
+            int[] order = EdgeSorter.sortedByWeight(weights);
+            for (int i = 1; i < order.length; i++) {
+                int prev = weights[order[i - 1]];
+                int cur = weights[order[i]];
+                assertTrue(prev < cur || (prev == cur && order[i - 1] < order[i]),
+                        "Edges must be sorted by weight, ties by id (bound " + bound + ")");
+            }
+        }
+    }
+
+    @Test
+    public void testFilterKruskalMatchesClassic() {
+        JSONHandler jsonHandler = new JSONHandler();
+        InputData inputData = new GraphGenerator().generateCompleteDataset();
+        KruskalAlgorithm filterKruskal = new KruskalAlgorithm(KruskalAlgorithm.Variant.FILTER);
+
+        int totalFiltered = 0;
+        for (InputData.GraphData graphData : inputData.getGraphs()) {
+            Graph graph = jsonHandler.createGraph(graphData);
+            MSTResult classic = kruskalAlgorithm.findMST(graph);
+            MSTResult filtered = filterKruskal.findMST(graph);
+
+            assertEquals(classic.getTotalCost(), filtered.getTotalCost(),
+                    "Filter-Kruskal cost mismatch on graph " + graphData.getId());
+            assertEquals(classic.getEdges().size(), filtered.getEdges().size(),
+                    "Filter-Kruskal edge count mismatch on graph " + graphData.getId());
+            assertTrue(isAcyclic(graph.getNodes(), filtered.getEdges()),
+                    "Filter-Kruskal MST must be acyclic");
+            totalFiltered += filtered.getFilteredEdgeCount();
+        }
+        assertTrue(totalFiltered > 0, "Filter-Kruskal should discard some heavy edges");
+
+        Graph disconnected = createDisconnectedGraph();
+        assertEquals(kruskalAlgorithm.findMST(disconnected).getTotalCost(),
+                filterKruskal.findMST(disconnected).getTotalCost(),
+                "Filter-Kruskal must handle disconnected graphs");
+    }
+
+    @Test
+    public void testBoruvkaMatchesPrimAndKruskal() {
+        BoruvkaAlgorithm boruvka = new BoruvkaAlgorithm();
+        JSONHandler jsonHandler = new JSONHandler();
+        InputData inputData = new GraphGenerator().generateCompleteDataset();
+
+        for (InputData.GraphData graphData : inputData.getGraphs()) {
+            Graph graph = jsonHandler.createGraph(graphData);
+            MSTResult result = boruvka.findMST(graph);
+            assertEquals(primAlgorithm.findMST(graph).getTotalCost(), result.getTotalCost(),
+                    "Borůvka/Prim cost mismatch on graph " + graphData.getId());
+            assertEquals(kruskalAlgorithm.findMST(graph).getTotalCost(), result.getTotalCost(),
+                    "Borůvka/Kruskal cost mismatch on graph " + graphData.getId());
+            assertTrue(isAcyclic(graph.getNodes(), result.getEdges()), "Borůvka MST must be acyclic");
+            assertTrue(isConnected(graph.getNodes(), result.getEdges()), "Borůvka MST must span the graph");
+        }
+
+        Graph large = createRandomGraph(20_000, 60_000, 50, new Random(11));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        MSTResult parallel;
+        try {
+            parallel = new BoruvkaAlgorithm(pool).findMST(large);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(kruskalAlgorithm.findMST(large).getTotalCost(), parallel.getTotalCost(),
+                "Parallel Borůvka cost mismatch on large graph");
+        assertEquals(large.getNodeCount() - 1, parallel.getEdges().size(),
+                "Parallel Borůvka must span the large graph");
+
+        Graph disconnected = createDisconnectedGraph();
+        assertEquals(kruskalAlgorithm.findMST(disconnected).getEdges().size(),
+                boruvka.findMST(disconnected).getEdges().size(),
+                "Borůvka must return a spanning forest on disconnected graphs");
+    }
+
+    @Test
+    public void testLayoutCachePersistsAndWarmStartsEditedGraphs() throws Exception {
+        Graph graph = new WorkloadGenerator(9, ForkJoinPool.commonPool()).generate(new WorkloadGenerator.Spec(1,
+                WorkloadGenerator.Topology.GEOMETRIC, 600, 4, WorkloadGenerator.WeightDistribution.EUCLIDEAN, 100));
+        ForceLayout engine = new ForceLayout(1200, 900);
+        Path file = Files.createTempDirectory("mst-layouts").resolve("layouts.bin");
+
+        LayoutCache cache = new LayoutCache(file, LayoutCache.DEFAULT_MAX_BYTES);
+        NodeLayout cold = cache.layout(graph, 1, engine);
+        NodeLayout fresh = engine.layout(graph);
+        assertEquals(fresh.getX(17), cold.getX(17));
+        assertEquals(0, cache.getHits());
+        cache.layout(graph, 1, engine);
+        assertEquals(1, cache.getHits());
+
+        LayoutCache reopened = new LayoutCache(file, LayoutCache.DEFAULT_MAX_BYTES);
+        NodeLayout stored = reopened.layout(graph, 1, engine);
+        assertEquals(1, reopened.getHits(), "Layouts survive restarts");
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            assertEquals(cold.getX(i), stored.getX(i), 1e-3);
+            assertEquals(cold.getY(i), stored.getY(i), 1e-3);
+        }
+
+        List<Edge> edited = new ArrayList<>(graph.getEdges());
+        edited.add(new Edge(graph.getNodeName(0), graph.getNodeName(300), 1));
+        Graph editedGraph = new Graph(graph.getNodes(), edited);
+        NodeLayout warm = reopened.layout(editedGraph, 1, engine);
+        NodeLayout recomputed = engine.layout(editedGraph);
+        assertEquals(1, reopened.getWarmStarts());
+        assertTrue(displacement(cold, warm) < displacement(cold, recomputed) / 4,
+                "A warm start keeps the previous picture: " + displacement(cold, warm));
+        assertEquals(2, reopened.size());
+
+        LayoutCache tiny = new LayoutCache(null, 28 + 12L * graph.getNodeCount());
+        tiny.layout(graph, 1, engine);
+        tiny.layout(editedGraph, 2, engine);
+        assertEquals(1, tiny.size(), "Least recently used layout is evicted");
+
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 5));
+        LayoutCache truncated = new LayoutCache(file, LayoutCache.DEFAULT_MAX_BYTES);
+        assertEquals(1, truncated.size(), "A torn record is dropped, earlier ones survive");
+        truncated.layout(editedGraph, 1, engine);
+        assertEquals(2, new LayoutCache(file, LayoutCache.DEFAULT_MAX_BYTES).size());
+
+        // The CLI and the GUI share one file but lay out into different frames
+        Path shared = Files.createTempDirectory("mst-layouts").resolve("layouts.bin");
+        LayoutCache cli = new LayoutCache(shared, LayoutCache.DEFAULT_MAX_BYTES);
+        LayoutCache gui = new LayoutCache(shared, LayoutCache.DEFAULT_MAX_BYTES);
+        cli.layout(graph, 1, engine);
+        NodeLayout guiLayout = gui.layout(editedGraph, 1, new ForceLayout(1200, 800));
+        assertEquals(0, gui.getWarmStarts(), "Layouts for another frame must not seed a warm start");
+        for (int i = 0; i < guiLayout.size(); i++) {
+            assertTrue(guiLayout.getY(i) <= 800, "Node " + i + " must lie inside the GUI frame");
+        }
+        assertEquals(2, gui.size(), "Records appended by another writer are taken in");
+        cli.layout(editedGraph, 1, engine);
+        assertEquals(3, new LayoutCache(shared, LayoutCache.DEFAULT_MAX_BYTES).size(),
+                "Interleaved writers must not lose each other's records");
+        new LayoutCache(shared, 28 + 12L * graph.getNodeCount());
+        cli.layout(graph, 1, new ForceLayout(1200, 900, 20, ForceLayout.DEFAULT_THETA, ForceLayout.DEFAULT_TOLERANCE));
+        assertEquals(4, new LayoutCache(shared, LayoutCache.DEFAULT_MAX_BYTES).size(),
+                "A writer whose file was compacted by another must restore its own records");
+    }
+
+    private static double displacement(NodeLayout a, NodeLayout b) {
+        double sum = 0;
+        for (int i = 0; i < a.size(); i++) {
+            sum += Math.hypot(a.getX(i) - b.getX(i), a.getY(i) - b.getY(i));
+        }
+        return sum / a.size();
+    }
+
+    @Test
+    public void testSpatialIndexFindsEverythingInViewport() {
+        Graph graph = new WorkloadGenerator(11, ForkJoinPool.commonPool()).generate(new WorkloadGenerator.Spec(1,
+                WorkloadGenerator.Topology.ERDOS_RENYI, 2000, 4, WorkloadGenerator.WeightDistribution.UNIFORM, 100));
+        NodeLayout layout = new ForceLayout(1200, 800, 5, ForceLayout.DEFAULT_THETA,
+                ForceLayout.DEFAULT_TOLERANCE).layout(graph);
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        SpatialIndex index = new SpatialIndex(layout, sources, targets);
+
+        double x0 = 400, y0 = 300, x1 = 600, y1 = 450;
+        int[] reported = new int[sources.length];
+        index.queryEdges(x0, y0, x1, y1, e -> reported[e]++);
+        int found = 0;
+        for (int e = 0; e < sources.length; e++) {
+            assertTrue(reported[e] <= 1, "Edge " + e + " reported " + reported[e] + " times");
+            found += reported[e];
+            if (segmentHitsRect(layout, sources[e], targets[e], x0, y0, x1, y1)) {
+                assertEquals(1, reported[e], "Visible edge " + e + " missed");
+            }
+        }
+        assertTrue(found < sources.length / 2, "Edges outside the viewport are culled: " + found);
+
+        Set<Integer> nodes = new HashSet<>();
+        index.queryNodes(x0, y0, x1, y1, nodes::add);
+        for (int i = 0; i < layout.size(); i++) {
+            if (layout.getX(i) >= x0 && layout.getX(i) <= x1 && layout.getY(i) >= y0 && layout.getY(i) <= y1) {
+                assertTrue(nodes.contains(i), "Visible node " + i + " missed");
+            }
+        }
+
+        boolean[] all = new boolean[sources.length];
+        Arrays.fill(all, true);
+        int filed = Arrays.stream(index.countEdgesPerCell(all)).sum();
+        assertTrue(filed >= sources.length, "Every edge is filed under at least one cell");
+    }
+
+    // Liang–Barsky clipping: does the segment between the two nodes cross the rectangle?
+    private static boolean segmentHitsRect(NodeLayout layout, int u, int v, double x0, double y0,
+                                           double x1, double y1) {
+        double px = layout.getX(u), py = layout.getY(u);
+        double dx = layout.getX(v) - px, dy = layout.getY(v) - py;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {px - x0, x1 - px, py - y0, y1 - py};
+        double t0 = 0, t1 = 1;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else if (p[i] < 0) {
+                t0 = Math.max(t0, q[i] / p[i]);
+            } else {
+                t1 = Math.min(t1, q[i] / p[i]);
+            }
+        }
+        return t0 <= t1;
+    }
+
+    @Test
+    public void testPipelineRendersImagesHeadlessInParallel() throws Exception {
+        Path dir = Files.createTempDirectory("mst-render");
+        List<InputData.GraphData> graphs = new GraphGenerator().generateCompleteDataset().getGraphs().subList(0, 10);
+        new BatchPipeline(4, 2, new GraphVisualizer(), dir.toString()).run(graphs);
+
+        for (InputData.GraphData graphData : graphs) {
+            BufferedImage image = ImageIO.read(dir.resolve("graph_" + graphData.getId() + ".png").toFile());
+            assertNotNull(image, "Graph " + graphData.getId() + " must be rendered");
+            assertEquals(1200, image.getWidth());
+            assertEquals(900, image.getHeight());
+            boolean mstEdgeDrawn = false;
+            for (int y = 0; y < image.getHeight() && !mstEdgeDrawn; y++) {
+                for (int x = 0; x < image.getWidth() && !mstEdgeDrawn; x++) {
+                    mstEdgeDrawn = (image.getRGB(x, y) & 0xFFFFFF) == 0xFF0000;
+                }
+            }
+            assertTrue(mstEdgeDrawn, "MST edges are drawn in red on graph " + graphData.getId());
+        }
+    }
+
+    @Test
+    public void testBatchPipelineResultsOrderedById() throws Exception {
+        InputData inputData = new GraphGenerator().generateCompleteDataset();
+        List<InputData.GraphData> shuffled = new ArrayList<>(inputData.getGraphs());
+        Collections.shuffle(shuffled, new Random(3));
+
+        List<OutputData.GraphResult> results = new BatchPipeline(4, 2, null, null).run(shuffled);
+
+        assertEquals(shuffled.size(), results.size(), "Every graph must produce a result");
+        JSONHandler jsonHandler = new JSONHandler();
+        for (int i = 0; i < results.size(); i++) {
+            InputData.GraphData graphData = inputData.getGraphs().get(i);
+            OutputData.GraphResult result = results.get(i);
+            assertEquals(graphData.getId(), result.getId(), "Results must be ordered by graph id");
+            assertEquals(kruskalAlgorithm.findMST(jsonHandler.createGraph(graphData)).getTotalCost(),
+                    result.getPrim().getTotalCost(), "Pipeline cost mismatch on graph " + graphData.getId());
+        }
+
+
+        GraphVisualizer crashing = new GraphVisualizer() {
+            @Override
+            public BufferedImage render(Graph graph, MSTResult prim, MSTResult kruskal, int graphId) {
+                throw new StackOverflowError("render");
+            }
+        };
+        IOException failure = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IOException.class, () -> new BatchPipeline(2, 2, crashing, null).run(shuffled)),
+                "An Error in a stage must fail the batch, not hang it");
+        assertInstanceOf(StackOverflowError.class, failure.getCause());
+    }
+
+    @Test
+    public void testPipelineStreamsResultsWhenSizesGrowAlongInput() throws Exception {
+        GraphGenerator generator = new GraphGenerator();
+        List<InputData.GraphData> graphs = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            graphs.add(generator.generateGraph(i, 10 + i, 20 + 2 * i, 100));
+        }
+        int[] fed = {0};
+        Iterator<InputData.GraphData> feed = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return fed[0] < graphs.size();
+            }
+
+            @Override
+            public InputData.GraphData next() {
+                return graphs.get(fed[0]++);
+            }
+        };
+
+        List<Integer> fedAtResult = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        new BatchPipeline(1, 1, null, null).run(feed, 4, result -> {
+            fedAtResult.add(fed[0]);
+            ids.add(result.getId());
+        });
+
+        assertEquals(graphs.size(), ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i, ids.get(i), "Results must stay in input order");
+        }
+        assertTrue(fedAtResult.get(0) < graphs.size(),
+                "The first result must be emitted before the input runs out, was after " + fedAtResult.get(0));
+    }
+
+    @Test
+    public void testStreamingInputsByIdEmitResultsOrderedById() throws Exception {
+        JSONHandler jsonHandler = new JSONHandler();
+        List<InputData.GraphData> shuffled = new ArrayList<>(
+                new GraphGenerator().generateCompleteDataset().getGraphs().subList(0, 8));
+        Collections.shuffle(shuffled, new Random(13));
+        InputData inputData = new InputData();
+        inputData.setGraphs(shuffled);
+
+        File json = File.createTempFile("input", ".json");
+        File binary = File.createTempFile("graphs", ".mstg");
+        json.deleteOnExit();
+        binary.deleteOnExit();
+        jsonHandler.writeInput(json.getPath(), inputData);
+        new BinaryGraphWriter().write(shuffled.iterator(), binary);
+
+        List<Integer> expected = shuffled.stream().map(InputData.GraphData::getId).sorted().toList();
+        List<Integer> fromJson = new ArrayList<>();
+        new BatchPipeline(2, null, null).run(jsonHandler.openInputById(json.getPath()), 3,
+                result -> fromJson.add(result.getId()));
+        assertEquals(expected, fromJson, "JSON input fed by id must produce results ordered by id");
+
+        List<Integer> fromBinary = new ArrayList<>();
+        try (BinaryGraphReader reader = new BinaryGraphReader(binary)) {
+            new BatchPipeline(2, null, null).run(reader, 3, result -> fromBinary.add(result.getId()));
+        }
+        assertEquals(expected, fromBinary, "Binary input must produce results ordered by id");
+    }
+
+    @Test
+    public void testStreamingReaderMatchesReadInput() throws Exception {
+        JSONHandler jsonHandler = new JSONHandler();
+        File file = File.createTempFile("input", ".json");
+        file.deleteOnExit();
+        jsonHandler.writeInput(file.getPath(), new GraphGenerator().generateCompleteDataset());
+
+        InputData expected = jsonHandler.readInput(file.getPath());
+        List<InputData.GraphData> streamed = new ArrayList<>();
+        try (GraphDataReader reader = jsonHandler.openInput(file.getPath())) {
+            reader.forEachRemaining(streamed::add);
+        }
+
+        assertEquals(expected.getGraphs().size(), streamed.size(), "Streaming must yield every graph");
+        for (int i = 0; i < streamed.size(); i++) {
+            InputData.GraphData a = expected.getGraphs().get(i);
+            InputData.GraphData b = streamed.get(i);
+            assertEquals(a.getId(), b.getId(), "Graph ids must match");
+            assertEquals(a.getNodes(), b.getNodes(), "Graph nodes must match");
+            assertEquals(a.getEdges().size(), b.getEdges().size(), "Graph edge counts must match");
+        }
+    }
+
+    @Test
+    public void testResultWriterProducesReadableOutput() throws Exception {
+        JSONHandler jsonHandler = new JSONHandler();
+        List<InputData.GraphData> graphs = new GraphGenerator().generateCompleteDataset().getGraphs().subList(0, 5);
+        BatchPipeline pipeline = new BatchPipeline(2, null, null);
+
+        File json = File.createTempFile("output", ".json");
+        File ndjson = File.createTempFile("output", ".ndjson");
+        json.deleteOnExit();
+        ndjson.deleteOnExit();
+        try (ResultWriter writer = jsonHandler.openOutput(json.getPath(), ResultWriter.Format.JSON)) {
+            pipeline.run(graphs.iterator(), 2, writer);
+        }
+        try (ResultWriter writer = jsonHandler.openOutput(ndjson.getPath(), ResultWriter.formatFor(ndjson.getPath()))) {
+            pipeline.run(graphs.iterator(), 2, writer);
+        }
+
+        OutputData output = new ObjectMapper().readValue(json, OutputData.class);
+        assertEquals(graphs.size(), output.getResults().size(), "JSON document must hold every result");
+        for (int i = 0; i < graphs.size(); i++) {
+            assertEquals(graphs.get(i).getId(), output.getResults().get(i).getId(),
+                    "Results must be written in input order");
+        }
+
+        List<String> lines = Files.readAllLines(ndjson.toPath());
+        assertEquals(graphs.size(), lines.size(), "NDJSON must hold one result per line");
+
+        for (File file : List.of(json, ndjson)) {
+            Map<Integer, OutputData.GraphResult> byId = jsonHandler.readResults(file.getPath());
+            assertEquals(graphs.size(), byId.size());
+            for (InputData.GraphData graphData : graphs) {
+                OutputData.GraphResult result = byId.get(graphData.getId());
+                assertEquals(graphData.getNodes(), result.getNodes());
+                assertEquals(kruskalAlgorithm.findMST(jsonHandler.createGraph(graphData)).getTotalCost(),
+                        result.getPrim().getTotalCost());
+            }
+        }
+    }
+
+    @Test
+    public void testRecordIndexReadsRecordsAtTheirOffsets() throws Exception {
+        JSONHandler jsonHandler = new JSONHandler();
+        InputData inputData = new GraphGenerator().generateCompleteDataset();
+        List<InputData.GraphData> graphs = inputData.getGraphs().subList(0, 5);
+        BatchPipeline pipeline = new BatchPipeline(2, null, null);
+
+        File input = File.createTempFile("input", ".json");
+        File json = File.createTempFile("output", ".json");
+        File ndjson = File.createTempFile("output", ".ndjson");
+        input.deleteOnExit();
+        json.deleteOnExit();
+        ndjson.deleteOnExit();
+        jsonHandler.writeInput(input.getPath(), inputData);
+        for (File file : List.of(json, ndjson)) {
+            try (ResultWriter writer = jsonHandler.openOutput(file.getPath(), ResultWriter.formatFor(file.getPath()))) {
+                pipeline.run(graphs.iterator(), 2, writer);
+            }
+        }
+
+        Map<Integer, Long> inputOffsets = new LinkedHashMap<>();
+        jsonHandler.indexInput(input.getPath(), inputOffsets::put);
+        assertEquals(inputData.getGraphs().size(), inputOffsets.size(), "Every input graph must be indexed");
+        for (InputData.GraphData graphData : inputData.getGraphs()) {
+            InputData.GraphData read = jsonHandler.readInputAt(input.getPath(), inputOffsets.get(graphData.getId()));
+            assertEquals(graphData.getId(), read.getId());
+            assertEquals(graphData.getNodes(), read.getNodes());
+            assertEquals(graphData.getEdges().size(), read.getEdges().size());
+        }
+
+        for (File file : List.of(json, ndjson)) {
+            Map<Integer, OutputData.GraphResult> expected = jsonHandler.readResults(file.getPath());
+            Map<Integer, Long> offsets = new LinkedHashMap<>();
+            jsonHandler.indexResults(file.getPath(), offsets::put);
+            assertEquals(graphs.stream().map(InputData.GraphData::getId).toList(), new ArrayList<>(offsets.keySet()),
+                    "Results must be indexed in file order");
+            for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                OutputData.GraphResult read = jsonHandler.readResultAt(file.getPath(), entry.getValue());
+                assertEquals(entry.getKey(), read.getId());
+                assertEquals(expected.get(entry.getKey()).getNodes(), read.getNodes());
+                assertEquals(expected.get(entry.getKey()).getPrim().getTotalCost(), read.getPrim().getTotalCost());
+            }
+
+            // An interrupted write: every record before the cut is still reported
+            long cut = new ArrayList<>(offsets.values()).get(graphs.size() - 1) + 10;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(cut);
+            }
+            List<Integer> found = new ArrayList<>();
+            assertThrows(IOException.class, () -> jsonHandler.indexResults(file.getPath(), (id, offset) -> found.add(id)));
+            assertEquals(new ArrayList<>(offsets.keySet()).subList(0, graphs.size() - 1), found,
+                    "A truncated record must not be reported");
+        }
+    }
+
+    @Test
+    public void testBinaryGraphFormatRoundTrip() throws Exception {
+        JSONHandler jsonHandler = new JSONHandler();
+        InputData inputData = new GraphGenerator().generateCompleteDataset();
+        File file = File.createTempFile("graphs", ".mstg");
+        file.deleteOnExit();
+        new BinaryGraphWriter().write(inputData.getGraphs().iterator(), file);
+
+        assertTrue(BinaryGraphReader.isBinaryGraphFile(file), "Binary file must be detected");
+        try (BinaryGraphReader reader = new BinaryGraphReader(file)) {
+            assertEquals(inputData.getGraphs().size(), reader.getGraphCount(), "Graph count must match");
+
+            for (int i = inputData.getGraphs().size() - 1; i >= 0; i--) {
+                InputData.GraphData expected = inputData.getGraphs().get(i);
+                Graph graph = reader.readGraph(expected.getId());
+                assertEquals(expected.getNodes(), graph.getNodes(), "Nodes must survive the round trip");
+                assertEquals(jsonHandler.createGraph(expected).getEdges(), graph.getEdges(),
+                        "Edges must survive the round trip");
+                assertEquals(kruskalAlgorithm.findMST(jsonHandler.createGraph(expected)).getTotalCost(),
+                        primAlgorithm.findMST(graph).getTotalCost(), "MST cost must match");
+            }
+
+            Iterator<Graph> graphs = reader.graphs();
+            int[] ids = reader.getGraphIds();
+            for (int i = 0; i < inputData.getGraphs().size(); i++) {
+                InputData.GraphData expected = inputData.getGraphs().get(i);
+                Graph actual = graphs.next();
+                assertEquals(expected.getId(), ids[i], "Graphs must stream in file order");
+                assertEquals(expected.getEdges().size(), actual.getEdgeCount(), "Edge counts must match");
+            }
+            assertFalse(graphs.hasNext(), "No extra graphs");
+
+            ObjectMapper mapper = new ObjectMapper();
+            List<OutputData.GraphResult> fromBinary = new ArrayList<>();
+            new BatchPipeline(2, null, null).run(reader, 4, fromBinary::add);
+            List<OutputData.GraphResult> fromJson = new ArrayList<>();
+            new BatchPipeline(2, null, null).run(inputData.getGraphs().iterator(), 4, fromJson::add);
+            for (int i = 0; i < fromJson.size(); i++) {
+                assertEquals(mapper.writeValueAsString(fromJson.get(i).getEdges()),
+                        mapper.writeValueAsString(fromBinary.get(i).getEdges()), "Binary input must give the same output");
+                assertEquals(fromJson.get(i).getPrim().getTotalCost(), fromBinary.get(i).getPrim().getTotalCost());
+            }
+        }
+
+        // First block: id, nodeCount, edgeCount, nameIds..., from...
+        int firstId = inputData.getGraphs().get(0).getId();
+        int nodeCount = inputData.getGraphs().get(0).getNodes().size();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(32 + 12 + 4L * nodeCount);
+            raf.writeInt(Integer.reverseBytes(nodeCount + 5));
+        }
+        try (BinaryGraphReader reader = new BinaryGraphReader(file)) {
+            assertThrows(IOException.class, () -> reader.readGraph(firstId), "Endpoint outside the node list");
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(32 + 4);
+            raf.writeInt(Integer.reverseBytes(Integer.MAX_VALUE));
+        }
+        try (BinaryGraphReader reader = new BinaryGraphReader(file)) {
+            assertThrows(IOException.class, () -> reader.readGraph(firstId), "Node count beyond the block");
+        }
+    }
+
+    @Test
+    public void testDensePrimMatchesKruskal() {
+        DensePrimAlgorithm densePrim = new DensePrimAlgorithm();
+        Graph complete = createRandomGraph(200, 40_000, 1000, new Random(5));
+        assertTrue(DensePrimAlgorithm.prefersDense(complete), "Near-complete graph should prefer dense Prim");
+
+        for (Graph graph : Arrays.asList(createSimpleGraph(), complete)) {
+            MSTResult result = densePrim.findMST(graph);
+            assertEquals(kruskalAlgorithm.findMST(graph).getTotalCost(), result.getTotalCost(),
+                    "Dense Prim cost mismatch");
+            assertEquals(graph.getNodeCount() - 1, result.getEdges().size(), "Dense Prim must span the graph");
+            assertTrue(isAcyclic(graph.getNodes(), result.getEdges()), "Dense Prim MST must be acyclic");
+        }
+        assertEquals(primAlgorithm.findMST(createDisconnectedGraph()).getEdges().size(),
+                densePrim.findMST(createDisconnectedGraph()).getEdges().size(),
+                "Dense Prim must stop at the start component like Prim");
+    }
+
+    @Test
+    public void testPlannerCalibrationIsCachedAndChoosesCorrectEngines() throws Exception {
+        File cache = File.createTempFile("planner", ".properties");
+        cache.delete();
+        cache.deleteOnExit();
+
+        MSTPlanner calibrated = MSTPlanner.loadOrCalibrate(cache.toPath());
+        assertTrue(cache.exists(), "Calibration must be written to disk");
+        MSTPlanner cached = MSTPlanner.loadOrCalibrate(cache.toPath());
+        assertEquals(calibrated.getCoefficients(), cached.getCoefficients(), "Cached coefficients must be reused");
+
+        for (Graph graph : Arrays.asList(createSimpleGraph(), createRandomGraph(300, 40_000, 100, new Random(9)),
+                createRandomGraph(5_000, 10_000, 1_000_000, new Random(10)))) {
+            MSTAlgorithm engine = cached.choose(graph);
+            assertEquals(kruskalAlgorithm.findMST(graph).getTotalCost(), engine.findMST(graph).getTotalCost(),
+                    "Planned engine " + engine.getName() + " must produce a minimum spanning tree");
+        }
+        assertNotEquals("dense-prim", cached.choose(createRandomGraph(1_000, 3_000, 100, new Random(11))).getName(),
+                "Dense Prim must not be chosen for a sparse graph");
+    }
+
+    @Test
+    public void testResultCacheReusesResultsAndRespectsSizeBound() throws Exception {
+        File dir = Files.createTempDirectory("mst-cache").toFile();
+        dir.deleteOnExit();
+        List<InputData.GraphData> graphs = new GraphGenerator().generateCompleteDataset().getGraphs();
+
+        BatchPipeline first = new BatchPipeline(2, null, null);
+        first.setResultCache(new ResultCache(dir.toPath(), ResultCache.DEFAULT_MAX_BYTES));
+        List<OutputData.GraphResult> solved = first.run(graphs);
+
+        ResultCache reopened = new ResultCache(dir.toPath(), ResultCache.DEFAULT_MAX_BYTES);
+        assertEquals(graphs.size(), reopened.size(), "Every solved graph must be cached on disk");
+        BatchPipeline second = new BatchPipeline(2, null, null);
+        second.setResultCache(reopened);
+        List<OutputData.GraphResult> cached = second.run(graphs);
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.writeValueAsString(solved), mapper.writeValueAsString(cached),
+                "Cached run must reproduce the original output");
+
+        InputData.GraphData graph = graphs.get(3);
+        InputData.GraphData reordered = new InputData.GraphData();
+        reordered.setId(99);
+        reordered.setNodes(graph.getNodes());
+        List<InputData.EdgeData> edges = new ArrayList<>();
+        for (InputData.EdgeData e : graph.getEdges()) {
+            InputData.EdgeData flipped = new InputData.EdgeData();
+            flipped.setFrom(e.getTo());
+            flipped.setTo(e.getFrom());
+            flipped.setWeight(e.getWeight());
+            edges.add(0, flipped);
+        }
+        reordered.setEdges(edges);
+        assertEquals(ResultCache.key(graph, "compare"), ResultCache.key(reordered, "compare"),
+                "Key must not depend on id or edge order");
+        assertNotEquals(ResultCache.key(graph, "compare"), ResultCache.key(graph, "auto"));
+
+        // Component ids are listed in node order, so a permuted forest must not reuse them
+        InputData.GraphData forest = new InputData.GraphData();
+        forest.setId(100);
+        forest.setNodes(Arrays.asList("A", "B", "C", "D", "E"));
+        forest.setEdges(new ArrayList<>());
+        for (String[] edge : new String[][]{{"A", "B"}, {"C", "D"}}) {
+            InputData.EdgeData e = new InputData.EdgeData();
+            e.setFrom(edge[0]);
+            e.setTo(edge[1]);
+            e.setWeight(1);
+            forest.getEdges().add(e);
+        }
+        InputData.GraphData permuted = new InputData.GraphData();
+        permuted.setId(101);
+        permuted.setNodes(Arrays.asList("E", "C", "A", "D", "B"));
+        permuted.setEdges(forest.getEdges());
+        second.run(List.of(forest));
+        List<Integer> cachedIds = second.run(List.of(permuted)).get(0).getPrim().getComponentIds();
+        List<Integer> freshIds = new BatchPipeline(1, null, null).run(List.of(permuted)).get(0)
+                .getPrim().getComponentIds();
+        assertEquals(freshIds, cachedIds, "Component ids must follow the permuted node order");
+
+        long bound = reopened.getTotalBytes() / 4;
+        ResultCache bounded = new ResultCache(dir.toPath(), bound);
+        assertTrue(bounded.getTotalBytes() <= bound, "Eviction must enforce the size bound");
+        assertTrue(bounded.size() < graphs.size());
+        assertEquals(bounded.size(), dir.listFiles((d, name) -> name.endsWith(".json")).length,
+                "Evicted entries must be removed from disk");
+    }
+
     private Graph createSimpleGraph() {
         List<String> nodes = Arrays.asList("A", "B", "C", "D", "E");
         List<Edge> edges = Arrays.asList(
@@ -133,6 +1069,25 @@ public class MSTCorrectnessTest {
         return new Graph(nodes, edges);
     }
 
+    private Graph createRandomGraph(int nodeCount, int extraEdges, int maxWeight, Random random) {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add("N" + i);
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 1; i < nodeCount; i++) {
+            edges.add(new Edge(nodes.get(random.nextInt(i)), nodes.get(i), random.nextInt(maxWeight) + 1));
+        }
+        for (int i = 0; i < extraEdges; i++) {
+            int from = random.nextInt(nodeCount);
+            int to = random.nextInt(nodeCount);
+            if (from != to) {
+                edges.add(new Edge(nodes.get(from), nodes.get(to), random.nextInt(maxWeight) + 1));
+            }
+        }
+        return new Graph(nodes, edges);
+    }
+
     private boolean isAcyclic(List<String> nodes, List<Edge> edges) {
         Map<String, List<String>> adj = new HashMap<>();
         for (String node : nodes) {
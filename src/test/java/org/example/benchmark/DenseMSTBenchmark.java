@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.algorithm.*;
+import org.example.model.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete graphs, E = V(V-1)/2: the case {@link DensePrimAlgorithm} exists for. Kept apart from
+ * {@link MSTBenchmark}, whose sparse sizes would need a V² matrix of many GB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DenseMSTBenchmark {
+
+    @Param({"500", "1000", "3000"})
+    public int vertexCount;
+
+    @Param({"100", "1000000"})
+    public int weightRange;
+
+    private Graph graph;
+    private DensePrimAlgorithm densePrimAlgorithm;
+    private PrimAlgorithm primAlgorithm;
+    private KruskalAlgorithm kruskalAlgorithm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> nodes = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            nodes.add("N" + i);
+        }
+        int edgeCount = vertexCount * (vertexCount - 1) / 2;
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        int e = 0;
+        for (int u = 0; u < vertexCount; u++) {
+            for (int v = u + 1; v < vertexCount; v++) {
+                from[e] = u;
+                to[e] = v;
+                weights[e] = random.nextInt(weightRange) + 1;
+                e++;
+            }
+        }
+        graph = Graph.fromIndexedEdges(nodes, from, to, weights);
+        // Built once here rather than inside the first measured call
+        graph.getWeightMatrix();
+        densePrimAlgorithm = new DensePrimAlgorithm();
+        primAlgorithm = new PrimAlgorithm();
+        kruskalAlgorithm = new KruskalAlgorithm();
+    }
+
+    @Benchmark
+    public MSTResult densePrim() {
+        return densePrimAlgorithm.findMST(graph);
+    }
+
+    @Benchmark
+    public MSTResult prim() {
+        return primAlgorithm.findMST(graph);
+    }
+
+    @Benchmark
+    public MSTResult kruskal() {
+        return kruskalAlgorithm.findMST(graph);
+    }
+}
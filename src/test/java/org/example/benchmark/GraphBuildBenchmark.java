@@ -0,0 +1,53 @@
+package org.example.benchmark;
+
+import org.example.model.*;
+import org.example.util.GraphGenerator;
+import org.example.util.JSONHandler;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GraphBuildBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int vertexCount;
+
+    /** Extra random edges per vertex on top of the spanning tree. */
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"100", "1000000"})
+    public int weightRange;
+
+    private InputData.GraphData graphData;
+    private List<String> nodes;
+    private List<Edge> edges;
+    private JSONHandler jsonHandler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graphData = new GraphGenerator(42).generateGraph(1, vertexCount, vertexCount * density, weightRange);
+        nodes = graphData.getNodes();
+        edges = new ArrayList<>();
+        for (InputData.EdgeData e : graphData.getEdges()) {
+            edges.add(new Edge(e.getFrom(), e.getTo(), e.getWeight()));
+        }
+        jsonHandler = new JSONHandler();
+    }
+
+    @Benchmark
+    public Graph graphConstructor() {
+        return new Graph(nodes, edges);
+    }
+
+    @Benchmark
+    public Graph createGraph() {
+        return jsonHandler.createGraph(graphData);
+    }
+}
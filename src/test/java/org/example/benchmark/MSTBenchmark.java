@@ -0,0 +1,50 @@
+package org.example.benchmark;
+
+import org.example.algorithm.*;
+import org.example.model.*;
+import org.example.util.GraphGenerator;
+import org.example.util.JSONHandler;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MSTBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int vertexCount;
+
+    /** Extra random edges per vertex on top of the spanning tree. */
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"100", "1000000"})
+    public int weightRange;
+
+    private Graph graph;
+    private PrimAlgorithm primAlgorithm;
+    private KruskalAlgorithm kruskalAlgorithm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InputData.GraphData graphData = new GraphGenerator(42)
+                .generateGraph(1, vertexCount, vertexCount * density, weightRange);
+        graph = new JSONHandler().createGraph(graphData);
+        primAlgorithm = new PrimAlgorithm();
+        kruskalAlgorithm = new KruskalAlgorithm();
+    }
+
+    @Benchmark
+    public MSTResult prim() {
+        return primAlgorithm.findMST(graph);
+    }
+
+    @Benchmark
+    public MSTResult kruskal() {
+        return kruskalAlgorithm.findMST(graph);
+    }
+}